@@ -0,0 +1,56 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.benchmark;
+
+import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.math.MathUtil;
+
+import java.util.Random;
+
+public final class BenchmarkUtil {
+
+    public static final int SEED = 1337;
+
+    private BenchmarkUtil() {
+    }
+
+    public static AudioBuffer createNoise(final AudioFormat format, final int frameCount) {
+        final AudioBuffer buffer = new AudioBuffer(format, frameCount);
+        final float[] samples = buffer.samples();
+        final Random random = new Random(SEED);
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = random.nextFloat() * 2F - 1F;
+        }
+        return buffer;
+    }
+
+    public static AudioBuffer createSine(final AudioFormat format, final int frameCount, final float frequency) {
+        final AudioBuffer buffer = new AudioBuffer(format, frameCount);
+        final float[] samples = buffer.samples();
+        final int channels = format.channels();
+        for (int frame = 0; frame < frameCount; frame++) {
+            final float sample = (float) Math.sin(MathUtil.TWO_PI * frequency * frame / format.sampleRate()) * 0.8F;
+            for (int channel = 0; channel < channels; channel++) {
+                samples[frame * channels + channel] = sample;
+            }
+        }
+        return buffer;
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.benchmark;
+
+import net.raphimc.audiomixer.io.AudioInputStream;
+import net.raphimc.audiomixer.io.mp3.Mp3AudioInputStream;
+import net.raphimc.audiomixer.io.mp3.Mp3AudioOutputStream;
+import net.raphimc.audiomixer.io.ogg.OggVorbisAudioInputStream;
+import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Decodes MP3 audio generated during setup by default. Other inputs can be benchmarked with -p format=<format> -p file=<path>
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@SuppressWarnings("checkstyle:VisibilityModifier")
+public class DecoderBenchmark {
+
+    private static final AudioFormat FORMAT = new AudioFormat(48000, 2);
+
+    @Param({"MP3"})
+    public Format format;
+
+    @Param("")
+    public String file;
+
+    private byte[] data;
+
+    @Setup
+    public void setup() throws IOException {
+        if (!this.file.isEmpty()) {
+            this.data = Files.readAllBytes(Path.of(this.file));
+        } else if (this.format == Format.MP3) {
+            final AudioBuffer buffer = BenchmarkUtil.createSine(FORMAT, FORMAT.millisToFrameCount(10_000), 440F);
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (Mp3AudioOutputStream mp3OutputStream = new Mp3AudioOutputStream(baos, FORMAT)) {
+                mp3OutputStream.write(buffer.samples());
+            }
+            this.data = baos.toByteArray();
+        } else {
+            throw new IllegalStateException("No input file specified for " + this.format);
+        }
+    }
+
+    @Benchmark
+    public float[] decode() throws IOException {
+        try (AudioInputStream audioInputStream = this.format.open(new ByteArrayInputStream(this.data))) {
+            return audioInputStream.readFully();
+        }
+    }
+
+    public enum Format {
+
+        MP3,
+        OGG_VORBIS;
+
+        private AudioInputStream open(final InputStream inputStream) throws IOException {
+            return switch (this) {
+                case MP3 -> new Mp3AudioInputStream(inputStream);
+                case OGG_VORBIS -> new OggVorbisAudioInputStream(inputStream);
+            };
+        }
+
+    }
+
+}
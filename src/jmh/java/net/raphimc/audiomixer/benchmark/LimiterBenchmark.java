@@ -0,0 +1,68 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.benchmark;
+
+import net.raphimc.audiomixer.processor.dynamics.LimiterProcessor;
+import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("checkstyle:VisibilityModifier")
+public class LimiterBenchmark {
+
+    @Param({"1", "2"})
+    public int channels;
+
+    private final LimiterProcessor limiterProcessor = new LimiterProcessor();
+    private AudioBuffer input;
+    private AudioBuffer buffer;
+
+    @Setup
+    public void setup() {
+        final AudioFormat format = new AudioFormat(48000, this.channels);
+        this.input = BenchmarkUtil.createNoise(format, format.millisToFrameCount(10));
+        this.input.multiply(2F); // Drive the limiter into gain reduction
+        this.buffer = this.input.createWorkBuffer();
+    }
+
+    @Benchmark
+    public AudioBuffer process() {
+        System.arraycopy(this.input.samples(), 0, this.buffer.samples(), 0, this.input.sampleCount());
+        this.limiterProcessor.process(this.buffer);
+        return this.buffer;
+    }
+
+}
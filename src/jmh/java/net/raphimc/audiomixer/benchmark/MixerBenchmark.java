@@ -0,0 +1,100 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.benchmark;
+
+import net.raphimc.audiomixer.mixer.Mixer;
+import net.raphimc.audiomixer.mixer.MultithreadedMixer;
+import net.raphimc.audiomixer.source.audio.impl.LoopingAudioSource;
+import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@SuppressWarnings("checkstyle:VisibilityModifier")
+public class MixerBenchmark {
+
+    private static final AudioFormat OUTPUT_FORMAT = new AudioFormat(48000, 2);
+
+    @Param({"100", "1000", "5000"})
+    public int sourceCount;
+
+    @Param
+    public MixerType mixerType;
+
+    private Mixer mixer;
+    private AudioBuffer buffer;
+
+    @Setup
+    public void setup() {
+        final AudioBuffer sourceBuffer = BenchmarkUtil.createNoise(OUTPUT_FORMAT.withChannels(1), OUTPUT_FORMAT.millisToFrameCount(10_000));
+        this.mixer = this.mixerType.mixerSupplier.get();
+        for (int i = 0; i < this.sourceCount; i++) {
+            final LoopingAudioSource source = new LoopingAudioSource(sourceBuffer);
+            source.pitch().set(1.33F);
+            this.mixer.add(source);
+        }
+        this.buffer = new AudioBuffer(OUTPUT_FORMAT, OUTPUT_FORMAT.millisToFrameCount(10));
+    }
+
+    @Benchmark
+    public AudioBuffer render() {
+        this.buffer.clear();
+        this.mixer.render(this.buffer);
+        return this.buffer;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (this.mixer instanceof AutoCloseable closeable) { // Stops the worker threads of the multithreaded mixer
+            closeable.close();
+        }
+    }
+
+    public enum MixerType {
+
+        SINGLE_THREADED(Mixer::new),
+        MULTI_THREADED(MultithreadedMixer::new);
+
+        private final Supplier<Mixer> mixerSupplier;
+
+        MixerType(final Supplier<Mixer> mixerSupplier) {
+            this.mixerSupplier = mixerSupplier;
+        }
+
+    }
+
+}
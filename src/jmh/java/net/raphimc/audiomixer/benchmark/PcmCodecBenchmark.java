@@ -0,0 +1,87 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.benchmark;
+
+import net.raphimc.audiomixer.io.pcm.PcmAudioInputStream;
+import net.raphimc.audiomixer.io.pcm.PcmAudioOutputStream;
+import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.PcmAudioFormat;
+import net.raphimc.audiomixer.util.PcmSampleEncoding;
+import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("checkstyle:VisibilityModifier")
+public class PcmCodecBenchmark {
+
+    private static final AudioFormat FORMAT = new AudioFormat(48000, 2);
+
+    @Param
+    public PcmSampleEncoding encoding;
+
+    private PcmAudioFormat pcmFormat;
+    private AudioBuffer samples;
+    private byte[] encoded;
+    private ByteArrayOutputStream outputStream;
+    private float[] decoded;
+
+    @Setup
+    public void setup() throws IOException {
+        this.pcmFormat = new PcmAudioFormat(FORMAT, this.encoding);
+        this.samples = BenchmarkUtil.createNoise(FORMAT, FORMAT.millisToFrameCount(1000));
+        this.outputStream = new ByteArrayOutputStream(this.pcmFormat.frameCountToByteCount(this.samples.frameCount()));
+        this.encoded = this.encode();
+        this.decoded = new float[this.samples.sampleCount()];
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        this.outputStream.reset();
+        final PcmAudioOutputStream pcmOutputStream = new PcmAudioOutputStream(this.outputStream, this.pcmFormat);
+        pcmOutputStream.write(this.samples.samples());
+        return this.outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public float[] decode() throws IOException {
+        final PcmAudioInputStream pcmInputStream = new PcmAudioInputStream(new ByteArrayInputStream(this.encoded), this.pcmFormat);
+        pcmInputStream.read(this.decoded);
+        return this.decoded;
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.benchmark;
+
+import net.raphimc.audiomixer.resampler.Resampler;
+import net.raphimc.audiomixer.resampler.impl.CubicResampler;
+import net.raphimc.audiomixer.resampler.impl.LinearResampler;
+import net.raphimc.audiomixer.resampler.impl.PointResampler;
+import net.raphimc.audiomixer.resampler.impl.SincResampler;
+import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("checkstyle:VisibilityModifier")
+public class ResamplerBenchmark {
+
+    private static final float OUTPUT_SAMPLE_RATE = 48000;
+
+    @Param
+    public ResamplerType resamplerType;
+
+    @Param
+    public ChannelLayout channelLayout;
+
+    @Param({"0.5", "0.91875", "1.0", "1.33", "2.0", "0.77123"}) // 0.91875 = 44.1 kHz to 48 kHz, 0.77123 has no small rational ratio
+    public float pitch;
+
+    @Param({"0.0", "0.25"}) // Fractional start positions disable the copy shortcut for unity pitch
+    public double startPosition;
+
+    private Resampler resampler;
+    private AudioBuffer src;
+    private AudioBuffer dst;
+    private double srcPosition;
+
+    @Setup
+    public void setup() {
+        final AudioFormat srcFormat = new AudioFormat(OUTPUT_SAMPLE_RATE * this.pitch, this.channelLayout.srcChannels);
+        final AudioFormat dstFormat = new AudioFormat(OUTPUT_SAMPLE_RATE, this.channelLayout.dstChannels);
+        this.resampler = this.resamplerType.resampler;
+        this.src = BenchmarkUtil.createNoise(srcFormat, srcFormat.millisToFrameCount(1000));
+        this.dst = new AudioBuffer(dstFormat, dstFormat.millisToFrameCount(10));
+        this.srcPosition = this.startPosition;
+    }
+
+    @Benchmark
+    public AudioBuffer resample() {
+        this.srcPosition = this.resampler.resample(this.src, this.dst, this.srcPosition);
+        if (this.srcPosition >= this.src.frameCount() - this.src.format().millisToFrameCount(20)) {
+            this.srcPosition = this.startPosition;
+        }
+        return this.dst;
+    }
+
+    public enum ResamplerType {
+
+        POINT(PointResampler.INSTANCE),
+        LINEAR(LinearResampler.INSTANCE),
+        CUBIC(CubicResampler.INSTANCE),
+        SINC(SincResampler.INSTANCE);
+
+        private final Resampler resampler;
+
+        ResamplerType(final Resampler resampler) {
+            this.resampler = resampler;
+        }
+
+    }
+
+    public enum ChannelLayout {
+
+        MONO_TO_MONO(1, 1),
+        STEREO_TO_STEREO(2, 2),
+        MONO_TO_STEREO(1, 2),
+        STEREO_TO_MONO(2, 1);
+
+        private final int srcChannels;
+        private final int dstChannels;
+
+        ChannelLayout(final int srcChannels, final int dstChannels) {
+            this.srcChannels = srcChannels;
+            this.dstChannels = dstChannels;
+        }
+
+    }
+
+}
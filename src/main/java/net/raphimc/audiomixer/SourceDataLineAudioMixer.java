@@ -19,6 +19,7 @@ package net.raphimc.audiomixer;
 
 import net.raphimc.audiomixer.util.JavaAudioFormatUtil;
 import net.raphimc.audiomixer.util.SourceDataLineWriter;
+import net.raphimc.audiomixer.util.buffer.AudioBuffer;
 
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.SourceDataLine;
@@ -26,6 +27,7 @@ import javax.sound.sampled.SourceDataLine;
 public class SourceDataLineAudioMixer extends LimitingAudioMixer implements AutoCloseable {
 
     private final SourceDataLineWriter sourceDataLineWriter;
+    private final AudioBuffer renderBuffer;
 
     public SourceDataLineAudioMixer(final SourceDataLine sourceDataLine) throws LineUnavailableException {
         this(sourceDataLine, 50);
@@ -36,8 +38,17 @@ public class SourceDataLineAudioMixer extends LimitingAudioMixer implements Auto
     }
 
     public SourceDataLineAudioMixer(final SourceDataLine sourceDataLine, final int bufferMillis, final int mixSliceMillis) throws LineUnavailableException {
+        this(sourceDataLine, bufferMillis, bufferMillis, mixSliceMillis);
+    }
+
+    public SourceDataLineAudioMixer(final SourceDataLine sourceDataLine, final int minBufferMillis, final int maxBufferMillis, final int mixSliceMillis) throws LineUnavailableException {
         super(JavaAudioFormatUtil.getAudioFormat(sourceDataLine.getFormat()));
-        this.sourceDataLineWriter = new SourceDataLineWriter(sourceDataLine, bufferMillis, () -> this.renderMillis(mixSliceMillis));
+        this.renderBuffer = new AudioBuffer(this.getFormat(), this.getFormat().millisToFrameCount(mixSliceMillis));
+        this.sourceDataLineWriter = new SourceDataLineWriter(sourceDataLine, minBufferMillis, maxBufferMillis, () -> {
+            this.renderBuffer.clear(); // The buffer is written out before the next slice is rendered, so it can be reused
+            this.render(this.renderBuffer);
+            return this.renderBuffer;
+        });
         this.sourceDataLineWriter.start();
     }
 
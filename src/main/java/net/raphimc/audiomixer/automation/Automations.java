@@ -19,11 +19,13 @@ package net.raphimc.audiomixer.automation;
 
 import net.raphimc.audiomixer.automation.finite.FiniteAutomation;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.profiling.RenderProfiler;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
@@ -32,12 +34,22 @@ import java.util.stream.Stream;
 
 public class Automations implements Collection<Automation> {
 
-    private final Collection<Automation> automations = Collections.synchronizedList(new ArrayList<>(0));
+    private final List<Automation> automations = Collections.synchronizedList(new ArrayList<>(0));
 
     public void process(final AudioBuffer buffer) {
         if (!this.isEmpty()) {
-            this.forEach(automation -> automation.advance(buffer.millisecondLength()));
+            final RenderProfiler profiler = RenderProfiler.current();
+            final long startTime = profiler != null ? System.nanoTime() : 0L;
+            final float millis = buffer.millisecondLength();
+            synchronized (this.automations) {
+                for (int i = 0; i < this.automations.size(); i++) {
+                    this.automations.get(i).advance(millis);
+                }
+            }
             this.removeIf(automation -> automation instanceof FiniteAutomation finiteAutomation && finiteAutomation.isFinished());
+            if (profiler != null) {
+                profiler.recordAutomations(this, System.nanoTime() - startTime);
+            }
         }
     }
 
@@ -22,12 +22,13 @@ import net.raphimc.audiomixer.util.AudioFormat;
 import java.io.Closeable;
 import java.io.EOFException;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 public abstract class AudioInputStream implements Closeable {
 
+    protected static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+    private static final int MAX_UNVERIFIED_SAMPLE_CAPACITY = 1 << 24; // 64 MB as floats
+
     private final AudioFormat format;
 
     public AudioInputStream(final AudioFormat format) {
@@ -61,25 +62,49 @@ public abstract class AudioInputStream implements Closeable {
         return length;
     }
 
+    // The samples are read into a single array, which is sized by the length hint (If there is one) and grows as more samples are read
     public float[] readFully() throws IOException {
-        final int bufferLength = this.format.millisToSampleCount(1000F);
-        final List<float[]> buffers = new ArrayList<>();
-        int totalLength = 0;
+        final int initialCapacity = this.getInitialSampleCapacity();
+        final float[] chunk = new float[this.format.millisToSampleCount(1000F)];
+        float[] samples = new float[initialCapacity >= 0 ? initialCapacity : chunk.length];
+        int sampleCount = 0;
         while (true) {
-            final float[] buffer = this.read(bufferLength);
-            buffers.add(buffer);
-            totalLength = Math.addExact(totalLength, buffer.length);
-            if (buffer.length < bufferLength) {
-                break;
+            if (sampleCount < samples.length) {
+                sampleCount += this.read(samples, sampleCount, samples.length - sampleCount);
+                if (sampleCount < samples.length) {
+                    break;
+                }
+            } else { // The array is only grown once it is known that there are more samples, so an exact hint never causes a copy
+                final int read = this.read(chunk);
+                if (read == 0) {
+                    break;
+                }
+                samples = Arrays.copyOf(samples, Math.max(Math.addExact(sampleCount, read), (int) Math.min((long) samples.length << 1, MAX_ARRAY_LENGTH)));
+                System.arraycopy(chunk, 0, samples, sampleCount, read);
+                sampleCount += read;
+                if (read < chunk.length) {
+                    break;
+                }
             }
         }
-        final float[] samples = new float[totalLength];
-        int offset = 0;
-        for (float[] buffer : buffers) {
-            System.arraycopy(buffer, 0, samples, offset, buffer.length);
-            offset += buffer.length;
-        }
-        return samples;
+        return sampleCount == samples.length ? samples : Arrays.copyOf(samples, sampleCount);
+    }
+
+    /**
+     * @return An estimate of the number of samples which can still be read from this stream or -1 if unknown
+     */
+    public long getRemainingSampleCountHint() {
+        return -1;
+    }
+
+    /**
+     * The length hint comes from file headers, which can be truncated or malformed. Larger buffers should only be allocated as the samples are actually read.
+     *
+     * @return The length hint limited to a size which is safe to allocate up front or -1 if unknown
+     */
+    public int getInitialSampleCapacity() {
+        final long sampleCountHint = this.getRemainingSampleCountHint();
+        return sampleCountHint >= 0 ? (int) Math.min(sampleCountHint, MAX_UNVERIFIED_SAMPLE_CAPACITY) : -1;
     }
 
     public AudioFormat getFormat() {
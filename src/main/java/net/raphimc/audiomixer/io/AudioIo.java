@@ -19,15 +19,25 @@ package net.raphimc.audiomixer.io;
 
 import net.raphimc.audiomixer.io.mp3.Mp3AudioInputStream;
 import net.raphimc.audiomixer.io.ogg.OggVorbisAudioInputStream;
+import net.raphimc.audiomixer.io.wav.MappedWavPcmAudioInputStream;
+import net.raphimc.audiomixer.io.wav.WavAdpcmAudioInputStream;
+import net.raphimc.audiomixer.io.wav.WavHeader;
 import net.raphimc.audiomixer.io.wav.WavPcmAudioInputStream;
+import net.raphimc.audiomixer.io.wav.riff.RiffInputStream;
 import net.raphimc.audiomixer.resampler.impl.LinearResampler;
 import net.raphimc.audiomixer.util.AudioFormat;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
 import net.raphimc.audiomixer.util.io.BinaryInputStream;
+import net.raphimc.audiomixer.util.io.ByteBufferInputStream;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 
 public final class AudioIo {
@@ -51,13 +61,54 @@ public final class AudioIo {
         return LinearResampler.INSTANCE.resample(read(inputStream), targetFormat);
     }
 
+    public static AudioBuffer read(final Path path) throws IOException {
+        try (AudioInputStream audioInputStream = open(path)) {
+            return new AudioBuffer(audioInputStream.getFormat(), audioInputStream.readFully());
+        }
+    }
+
+    public static AudioBuffer read(final Path path, final AudioFormat targetFormat) throws IOException {
+        return LinearResampler.INSTANCE.resample(read(path), targetFormat);
+    }
+
+    // WAV files are memory mapped (Unless they are too large to be mapped in one piece), everything else is streamed from the file
+    public static AudioInputStream open(final Path path) throws IOException {
+        final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final byte[] magic = Channels.newInputStream(fileChannel).readNBytes(MAGIC_LENGTH); // Not closed, because that would close the channel
+            if (Arrays.equals(magic, 0, Math.min(magic.length, WAV_MAGIC.length), WAV_MAGIC, 0, WAV_MAGIC.length) && fileChannel.size() <= Integer.MAX_VALUE) {
+                final MappedByteBuffer file = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+                fileChannel.close(); // The mapping stays valid after the channel is closed
+                final ByteBufferInputStream inputStream = new ByteBufferInputStream(file);
+                final RiffInputStream riffInputStream = new RiffInputStream(inputStream);
+                final WavHeader header = WavHeader.read(riffInputStream);
+                if (header.adpcmCodec() != null) {
+                    return new WavAdpcmAudioInputStream(riffInputStream, header);
+                } else {
+                    return new MappedWavPcmAudioInputStream(header, inputStream.getBuffer());
+                }
+            }
+            fileChannel.position(0);
+            return open(Channels.newInputStream(fileChannel));
+        } catch (final IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
     public static AudioInputStream open(final InputStream inputStream) throws IOException {
         final BinaryInputStream bis = new BinaryInputStream(new BufferedInputStream(inputStream, BUFFER_SIZE));
         bis.mark(MAGIC_LENGTH);
         final byte[] magic = bis.readBytes(MAGIC_LENGTH);
         bis.reset();
         if (Arrays.equals(magic, 0, WAV_MAGIC.length, WAV_MAGIC, 0, WAV_MAGIC.length)) {
-            return new WavPcmAudioInputStream(bis);
+            final RiffInputStream riffInputStream = new RiffInputStream(bis);
+            final WavHeader header = WavHeader.read(riffInputStream);
+            if (header.adpcmCodec() != null) {
+                return new WavAdpcmAudioInputStream(riffInputStream, header);
+            } else {
+                return new WavPcmAudioInputStream(riffInputStream, header);
+            }
         } else if (Arrays.equals(magic, 0, OGG_MAGIC.length, OGG_MAGIC, 0, OGG_MAGIC.length)) {
             return new OggVorbisAudioInputStream(bis);
         } else if (Arrays.equals(magic, 0, TAGGED_MP3_MAGIC.length, TAGGED_MP3_MAGIC, 0, TAGGED_MP3_MAGIC.length)) {
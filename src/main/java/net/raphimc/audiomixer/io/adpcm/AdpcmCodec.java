@@ -0,0 +1,258 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.io.adpcm;
+
+import net.raphimc.audiomixer.util.math.MathUtil;
+
+import java.util.Arrays;
+
+// Block based 4-bit ADPCM as used in WAV files. Each block starts with a header containing the decoder state, so blocks can be decoded independently.
+public class AdpcmCodec {
+
+    private static final int[] IMA_INDEX_TABLE = {-1, -1, -1, -1, 2, 4, 6, 8, -1, -1, -1, -1, 2, 4, 6, 8};
+    private static final int[] IMA_STEP_TABLE = {
+        7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 19, 21, 23, 25, 28, 31, 34, 37, 41, 45, 50, 55, 60, 66, 73, 80, 88, 97, 107, 118, 130, 143, 157, 173, 190, 209, 230,
+        253, 279, 307, 337, 371, 408, 449, 494, 544, 598, 658, 724, 796, 876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066, 2272, 2499, 2749, 3024, 3327,
+        3660, 4026, 4428, 4871, 5358, 5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487, 12635, 13899, 15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+    };
+    private static final int IMA_HEADER_BYTES = 4;
+    private static final int IMA_GROUP_BYTES = 4;
+    private static final int[] MS_ADAPTATION_TABLE = {230, 230, 230, 230, 307, 409, 512, 614, 768, 614, 512, 409, 307, 230, 230, 230};
+    private static final int MS_HEADER_BYTES = 7;
+    private static final int MS_MIN_DELTA = 16;
+    private static final int MS_MAX_DELTA = Integer.MAX_VALUE / 768; // Prevents overflows with corrupt data
+
+    public static final short[] MS_STANDARD_COEFFICIENTS = {256, 0, 512, -256, 0, 0, 192, 64, 240, 0, 460, -208, 392, -232};
+
+    private final Type type;
+    private final int channels;
+    private final int blockAlign;
+    private final int framesPerBlock;
+    private final short[] coefficients;
+
+    private AdpcmCodec(final Type type, final int channels, final int blockAlign, final int framesPerBlock, final short[] coefficients) {
+        if (channels <= 0) {
+            throw new IllegalArgumentException("Channel count must be > 0");
+        }
+        if (framesPerBlock <= 0) {
+            throw new IllegalArgumentException("Block align too small: " + blockAlign);
+        }
+        this.type = type;
+        this.channels = channels;
+        this.blockAlign = blockAlign;
+        this.framesPerBlock = framesPerBlock;
+        this.coefficients = coefficients;
+    }
+
+    public static AdpcmCodec ima(final int channels, final int blockAlign) {
+        if (channels > 0 && (blockAlign - IMA_HEADER_BYTES * channels) % (IMA_GROUP_BYTES * channels) != 0) {
+            throw new IllegalArgumentException("Block align must be a multiple of " + (IMA_GROUP_BYTES * channels) + " after the header: " + blockAlign);
+        }
+        return new AdpcmCodec(Type.IMA, channels, blockAlign, getImaFrameCount(channels, blockAlign), null);
+    }
+
+    public static AdpcmCodec ms(final int channels, final int blockAlign, final int framesPerBlock, final short[] coefficients) {
+        if (coefficients.length == 0 || coefficients.length % 2 != 0) {
+            throw new IllegalArgumentException("Coefficients must be non empty pairs");
+        }
+        return new AdpcmCodec(Type.MS, channels, blockAlign, Math.min(framesPerBlock, getMsFrameCount(channels, blockAlign)), coefficients);
+    }
+
+    /**
+     * @return The number of frames contained in a (Possibly truncated) block of the given length
+     */
+    public int getFrameCount(final int blockLength) {
+        final int frameCount = switch (this.type) {
+            case IMA -> getImaFrameCount(this.channels, blockLength);
+            case MS -> getMsFrameCount(this.channels, blockLength);
+        };
+        return MathUtil.clamp(frameCount, 0, this.framesPerBlock);
+    }
+
+    /**
+     * Decodes the first frames of a block into interleaved 16-bit samples.
+     */
+    public void decodeBlock(final byte[] src, final int srcOffset, final short[] dst, final int dstOffset, final int frameCount) {
+        switch (this.type) {
+            case IMA -> this.decodeImaBlock(src, srcOffset, dst, dstOffset, frameCount);
+            case MS -> this.decodeMsBlock(src, srcOffset, dst, dstOffset, frameCount);
+        }
+    }
+
+    /**
+     * Encodes a full block of interleaved 16-bit samples. Only supported for IMA ADPCM.
+     *
+     * @param stepIndices The step index of each channel. Updated with the state at the end of the block, so the next block continues with the same precision.
+     */
+    public void encodeBlock(final short[] src, final int srcOffset, final int frameCount, final byte[] dst, final int dstOffset, final int[] stepIndices) {
+        if (this.type != Type.IMA) {
+            throw new UnsupportedOperationException("Encoding is only supported for IMA ADPCM");
+        }
+        Arrays.fill(dst, dstOffset, dstOffset + this.blockAlign, (byte) 0);
+        for (int channel = 0; channel < this.channels; channel++) {
+            int predictor = frameCount > 0 ? src[srcOffset + channel] : 0;
+            int index = stepIndices[channel];
+            final int headerOffset = dstOffset + channel * IMA_HEADER_BYTES;
+            dst[headerOffset] = (byte) predictor;
+            dst[headerOffset + 1] = (byte) (predictor >> 8);
+            dst[headerOffset + 2] = (byte) index;
+            for (int frame = 1; frame < this.framesPerBlock; frame++) {
+                final int sample = frame < frameCount ? src[srcOffset + frame * this.channels + channel] : predictor;
+                int difference = sample - predictor;
+                int nibble = 0;
+                if (difference < 0) {
+                    nibble = 8;
+                    difference = -difference;
+                }
+                int step = IMA_STEP_TABLE[index];
+                if (difference >= step) {
+                    nibble |= 4;
+                    difference -= step;
+                }
+                step >>= 1;
+                if (difference >= step) {
+                    nibble |= 2;
+                    difference -= step;
+                }
+                step >>= 1;
+                if (difference >= step) {
+                    nibble |= 1;
+                }
+                predictor = imaStep(predictor, index, nibble);
+                index = MathUtil.clamp(index + IMA_INDEX_TABLE[nibble], 0, IMA_STEP_TABLE.length - 1);
+                final int position = this.getImaNibblePosition(channel, frame);
+                dst[dstOffset + (position >> 1)] |= (byte) ((position & 1) == 0 ? nibble : nibble << 4);
+            }
+            stepIndices[channel] = index;
+        }
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    public int getChannels() {
+        return this.channels;
+    }
+
+    public int getBlockAlign() {
+        return this.blockAlign;
+    }
+
+    public int getFramesPerBlock() {
+        return this.framesPerBlock;
+    }
+
+    private void decodeImaBlock(final byte[] src, final int srcOffset, final short[] dst, final int dstOffset, final int frameCount) {
+        for (int channel = 0; channel < this.channels; channel++) {
+            final int headerOffset = srcOffset + channel * IMA_HEADER_BYTES;
+            int predictor = (short) ((src[headerOffset] & 0xFF) | (src[headerOffset + 1] << 8));
+            int index = MathUtil.clamp(src[headerOffset + 2] & 0xFF, 0, IMA_STEP_TABLE.length - 1);
+            if (frameCount > 0) {
+                dst[dstOffset + channel] = (short) predictor;
+            }
+            for (int frame = 1; frame < frameCount; frame++) {
+                final int position = this.getImaNibblePosition(channel, frame);
+                final int nibble = (src[srcOffset + (position >> 1)] >> ((position & 1) << 2)) & 0x0F;
+                predictor = imaStep(predictor, index, nibble);
+                index = MathUtil.clamp(index + IMA_INDEX_TABLE[nibble], 0, IMA_STEP_TABLE.length - 1);
+                dst[dstOffset + frame * this.channels + channel] = (short) predictor;
+            }
+        }
+    }
+
+    // Nibble position relative to the block start. Channels are interleaved in groups of 4 bytes (8 nibbles, low nibble first).
+    private int getImaNibblePosition(final int channel, final int frame) {
+        final int group = (frame - 1) >> 3;
+        final int groupOffset = IMA_HEADER_BYTES * this.channels + (group * this.channels + channel) * IMA_GROUP_BYTES;
+        return (groupOffset << 1) + ((frame - 1) & 7);
+    }
+
+    private void decodeMsBlock(final byte[] src, final int srcOffset, final short[] dst, final int dstOffset, final int frameCount) {
+        final int dataOffset = srcOffset + MS_HEADER_BYTES * this.channels;
+        for (int channel = 0; channel < this.channels; channel++) {
+            final int predictorIndex = MathUtil.clamp(src[srcOffset + channel] & 0xFF, 0, this.coefficients.length / 2 - 1);
+            final int coefficient1 = this.coefficients[predictorIndex * 2];
+            final int coefficient2 = this.coefficients[predictorIndex * 2 + 1];
+            int delta = readShort(src, srcOffset + this.channels + channel * 2);
+            int sample1 = readShort(src, srcOffset + this.channels * 3 + channel * 2);
+            int sample2 = readShort(src, srcOffset + this.channels * 5 + channel * 2);
+            if (frameCount > 0) {
+                dst[dstOffset + channel] = (short) sample2;
+            }
+            if (frameCount > 1) {
+                dst[dstOffset + this.channels + channel] = (short) sample1;
+            }
+            for (int frame = 2; frame < frameCount; frame++) {
+                final int nibbleIndex = (frame - 2) * this.channels + channel;
+                final int unsignedNibble = (src[dataOffset + (nibbleIndex >> 1)] >> ((nibbleIndex & 1) == 0 ? 4 : 0)) & 0x0F; // High nibble first
+                final int signedNibble = (unsignedNibble << 28) >> 28;
+                final int predictor = (sample1 * coefficient1 + sample2 * coefficient2) >> 8;
+                final int sample = MathUtil.clamp(predictor + signedNibble * delta, Short.MIN_VALUE, Short.MAX_VALUE);
+                sample2 = sample1;
+                sample1 = sample;
+                delta = MathUtil.clamp((MS_ADAPTATION_TABLE[unsignedNibble] * delta) >> 8, MS_MIN_DELTA, MS_MAX_DELTA);
+                dst[dstOffset + frame * this.channels + channel] = (short) sample;
+            }
+        }
+    }
+
+    private static int imaStep(final int predictor, final int index, final int nibble) {
+        final int step = IMA_STEP_TABLE[index];
+        int difference = step >> 3;
+        if ((nibble & 4) != 0) {
+            difference += step;
+        }
+        if ((nibble & 2) != 0) {
+            difference += step >> 1;
+        }
+        if ((nibble & 1) != 0) {
+            difference += step >> 2;
+        }
+        if ((nibble & 8) != 0) {
+            difference = -difference;
+        }
+        return MathUtil.clamp(predictor + difference, Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    private static int getImaFrameCount(final int channels, final int blockLength) {
+        if (blockLength < IMA_HEADER_BYTES * channels) {
+            return 0;
+        }
+        return 1 + (blockLength - IMA_HEADER_BYTES * channels) / (IMA_GROUP_BYTES * channels) * 8;
+    }
+
+    private static int getMsFrameCount(final int channels, final int blockLength) {
+        if (blockLength < MS_HEADER_BYTES * channels) {
+            return 0;
+        }
+        return 2 + (blockLength - MS_HEADER_BYTES * channels) * 2 / channels;
+    }
+
+    private static int readShort(final byte[] src, final int index) {
+        return (short) ((src[index] & 0xFF) | (src[index + 1] << 8));
+    }
+
+    public enum Type {
+
+        IMA,
+        MS
+
+    }
+
+}
@@ -26,20 +26,43 @@ import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Objects;
 
 public class JavaAudioInputStream extends PcmAudioInputStream {
 
+    private final long sampleCount;
+    private long readSampleCount;
+
     public JavaAudioInputStream(final AudioInputStream inputStream) {
         this(new CodeBeforeSuper(inputStream));
     }
 
     private JavaAudioInputStream(final CodeBeforeSuper codeBeforeSuper) {
         super(new BlockInputStream(codeBeforeSuper.inputStream, codeBeforeSuper.inputStream.getFormat().getFrameSize()), codeBeforeSuper.inputStream.getFormat().getSampleRate(), codeBeforeSuper.inputStream.getFormat().getChannels(), codeBeforeSuper.encoding);
+        final long frameLength = codeBeforeSuper.inputStream.getFrameLength();
+        this.sampleCount = frameLength != AudioSystem.NOT_SPECIFIED ? frameLength * this.getFormat().channels() : -1;
     }
 
     @Override
     public float read() throws IOException {
-        return super.read();
+        final float sample = super.read();
+        this.readSampleCount++;
+        return sample;
+    }
+
+    @Override
+    public int read(final float[] samples, final int offset, final int length) throws IOException {
+        final int read = super.read(samples, offset, length);
+        this.readSampleCount += read;
+        return read;
+    }
+
+    @Override
+    public long getRemainingSampleCountHint() {
+        if (this.sampleCount == -1) {
+            return -1;
+        }
+        return Math.max(this.sampleCount - this.readSampleCount, 0);
     }
 
     private static final class CodeBeforeSuper {
@@ -62,33 +85,58 @@ public class JavaAudioInputStream extends PcmAudioInputStream {
 
     private static final class BlockInputStream extends InputStream {
 
+        private static final int BLOCK_SIZE = 8192;
+
         private final InputStream delegate;
         private final byte[] buffer;
         private int index;
         private int limit;
 
-        private BlockInputStream(final InputStream delegate, final int blockSize) {
+        private BlockInputStream(final InputStream delegate, final int frameSize) {
             this.delegate = delegate;
-            this.buffer = new byte[blockSize];
+            this.buffer = new byte[Math.max(BLOCK_SIZE / frameSize, 1) * frameSize]; // The java audio stream only supports reading whole frames
         }
 
         @Override
         public int read() throws IOException {
-            if (this.index >= this.limit) {
-                this.index = 0;
-                this.limit = this.delegate.readNBytes(this.buffer, 0, this.buffer.length);
-                if (this.limit == 0) {
-                    return -1;
-                }
+            if (this.index >= this.limit && !this.fill()) {
+                return -1;
             }
             return this.buffer[this.index++] & 0xFF;
         }
 
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            if (this.index >= this.limit && !this.fill()) {
+                return -1;
+            }
+            final int count = Math.min(len, this.limit - this.index);
+            System.arraycopy(this.buffer, this.index, b, off, count);
+            this.index += count;
+            return count;
+        }
+
         @Override
         public void close() throws IOException {
             this.delegate.close();
         }
 
+        private boolean fill() throws IOException {
+            this.index = 0;
+            do { // Doesn't wait for the whole block to be available
+                this.limit = this.delegate.read(this.buffer, 0, this.buffer.length);
+            } while (this.limit == 0);
+            if (this.limit < 0) {
+                this.limit = 0;
+                return false;
+            }
+            return true;
+        }
+
     }
 
 }
@@ -34,10 +34,16 @@ import java.io.InputStream;
 
 public class Mp3AudioInputStream extends AudioInputStream {
 
+    private static final int LAYER_1_SAMPLES_PER_FRAME = 384;
+    private static final int MPEG1_SAMPLES_PER_FRAME = 1152;
+    private static final int MPEG2_LAYER_3_SAMPLES_PER_FRAME = 576;
+
     private final Bitstream mp3InputStream;
     private final SampleBuffer outputBuffer;
     private final FloatRingBuffer samplesBuffer;
     private final Decoder decoder = new Decoder();
+    private final long sampleCount;
+    private long decodedSampleCount;
 
     public Mp3AudioInputStream(final InputStream inputStream) throws IOException {
         this(new CodeBeforeSuper(inputStream));
@@ -49,6 +55,7 @@ public class Mp3AudioInputStream extends AudioInputStream {
         this.outputBuffer = new SampleBuffer(codeBeforeSuper.firstFrame.frequency(), this.getFormat().channels());
         this.samplesBuffer = new FloatRingBuffer(OggInputStream.BUFFER_SIZE * this.getFormat().channels());
         this.decoder.setOutputBuffer(this.outputBuffer);
+        this.sampleCount = estimateSampleCount(codeBeforeSuper.firstFrame, this.getFormat().channels());
     }
 
     @Override
@@ -59,6 +66,14 @@ public class Mp3AudioInputStream extends AudioInputStream {
         return this.samplesBuffer.read();
     }
 
+    @Override
+    public long getRemainingSampleCountHint() {
+        if (this.sampleCount == -1) {
+            return -1;
+        }
+        return Math.max(this.sampleCount - this.decodedSampleCount + this.samplesBuffer.size(), 0);
+    }
+
     @Override
     public void close() throws IOException {
         try {
@@ -78,6 +93,7 @@ public class Mp3AudioInputStream extends AudioInputStream {
             this.decoder.decodeFrame(frame, this.mp3InputStream);
             this.mp3InputStream.closeFrame();
 
+            this.decodedSampleCount += this.outputBuffer.getBufferLength();
             final short[] buffer = this.outputBuffer.getBuffer();
             for (int i = 0; i < this.outputBuffer.getBufferLength(); i++) {
                 final short sample = buffer[i];
@@ -96,6 +112,23 @@ public class Mp3AudioInputStream extends AudioInputStream {
         }
     }
 
+    // The frame count is only known if the first frame contains a Xing/VBRI header
+    private static long estimateSampleCount(final Header firstFrame, final int channels) {
+        if (!firstFrame.vbr()) {
+            return -1;
+        }
+        final int samplesPerFrame;
+        if (firstFrame.layer() == 1) {
+            samplesPerFrame = LAYER_1_SAMPLES_PER_FRAME;
+        } else if (firstFrame.layer() == 3 && firstFrame.version() != Header.MPEG1) {
+            samplesPerFrame = MPEG2_LAYER_3_SAMPLES_PER_FRAME;
+        } else {
+            samplesPerFrame = MPEG1_SAMPLES_PER_FRAME;
+        }
+        final long frameCount = firstFrame.max_number_of_frames(0) + 1L; // The header frame itself is decoded as well
+        return frameCount * samplesPerFrame * channels;
+    }
+
     private static final class CodeBeforeSuper {
 
         private final Bitstream mp3InputStream;
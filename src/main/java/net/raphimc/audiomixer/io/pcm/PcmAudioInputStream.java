@@ -27,11 +27,16 @@ import net.raphimc.audiomixer.util.math.MathUtil;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteOrder;
+import java.util.Objects;
 
 public class PcmAudioInputStream extends AudioInputStream {
 
+    private static final int READ_CHUNK_SIZE = 8192;
+
     private final BinaryInputStream inputStream;
     private final PcmSampleEncoding encoding;
+    private final PcmSampleDecoder decoder;
+    private byte[] readChunk;
 
     public PcmAudioInputStream(final InputStream inputStream, final PcmAudioFormat format) {
         this(inputStream, format.format(), format.encoding());
@@ -45,6 +50,7 @@ public class PcmAudioInputStream extends AudioInputStream {
         super(format);
         this.inputStream = new BinaryInputStream(inputStream);
         this.encoding = encoding;
+        this.decoder = new PcmSampleDecoder(encoding);
     }
 
     @Override
@@ -63,6 +69,28 @@ public class PcmAudioInputStream extends AudioInputStream {
         };
     }
 
+    // Reads the samples in chunks of bytes and converts them with a PcmSampleDecoder. A short read marks the end of the stream (A trailing partial sample is dropped).
+    @Override
+    public int read(final float[] samples, final int offset, final int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, samples.length);
+        if (this.readChunk == null) {
+            this.readChunk = new byte[READ_CHUNK_SIZE];
+        }
+        final int chunkSampleCount = READ_CHUNK_SIZE / this.encoding.bytesPerSample();
+        int read = 0;
+        while (read < length) {
+            final int chunkLength = Math.min(chunkSampleCount, length - read);
+            final int byteCount = this.inputStream.readNBytes(this.readChunk, 0, this.decoder.getByteCount(chunkLength));
+            final int sampleCount = byteCount / this.encoding.bytesPerSample();
+            this.decoder.decode(this.readChunk, 0, samples, offset + read, sampleCount);
+            read += sampleCount;
+            if (sampleCount < chunkLength) {
+                break;
+            }
+        }
+        return read;
+    }
+
     @Override
     public void close() throws IOException {
         this.inputStream.close();
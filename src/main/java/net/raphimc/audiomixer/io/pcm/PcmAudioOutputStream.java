@@ -22,16 +22,18 @@ import net.raphimc.audiomixer.util.AudioFormat;
 import net.raphimc.audiomixer.util.PcmAudioFormat;
 import net.raphimc.audiomixer.util.PcmSampleEncoding;
 import net.raphimc.audiomixer.util.io.BinaryOutputStream;
-import net.raphimc.audiomixer.util.math.MathUtil;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.ByteOrder;
 
 public class PcmAudioOutputStream extends AudioOutputStream {
 
+    private static final int MAX_CHUNK_SAMPLE_COUNT = 8192;
+
     private final BinaryOutputStream outputStream;
-    private final PcmSampleEncoding encoding;
+    private final PcmSampleEncoder encoder;
+    private final float[] singleSample = new float[1];
+    private byte[] chunk = new byte[0];
 
     public PcmAudioOutputStream(final OutputStream outputStream, final PcmAudioFormat format) {
         this(outputStream, format.format(), format.encoding());
@@ -44,97 +46,34 @@ public class PcmAudioOutputStream extends AudioOutputStream {
     public PcmAudioOutputStream(final OutputStream outputStream, final AudioFormat format, final PcmSampleEncoding encoding) {
         super(format);
         this.outputStream = new BinaryOutputStream(outputStream);
-        this.encoding = encoding;
+        this.encoder = new PcmSampleEncoder(encoding);
     }
 
     @Override
     public void write(final float sample) throws IOException {
-        switch (this.encoding) {
-            case S8 -> this.writeSignedByte(sample);
-            case U8 -> this.writeUnsignedByte(sample);
-            case S16_BE, S16_LE -> this.writeSignedShort(sample, this.encoding.byteOrder());
-            case U16_BE, U16_LE -> this.writeUnsignedShort(sample, this.encoding.byteOrder());
-            case S24_BE, S24_LE -> this.writeSignedMedium(sample, this.encoding.byteOrder());
-            case U24_BE, U24_LE -> this.writeUnsignedMedium(sample, this.encoding.byteOrder());
-            case S32_BE, S32_LE -> this.writeSignedInt(sample, this.encoding.byteOrder());
-            case U32_BE, U32_LE -> this.writeUnsignedInt(sample, this.encoding.byteOrder());
-            case F32_BE, F32_LE -> this.outputStream.writeFloat(sample, this.encoding.byteOrder());
-            case F64_BE, F64_LE -> this.outputStream.writeDouble(sample, this.encoding.byteOrder());
-            default -> throw new IllegalStateException("Unsupported PCM format: " + this.encoding);
-        }
+        this.singleSample[0] = sample;
+        this.write(this.singleSample, 0, 1);
     }
 
     @Override
-    public void close() throws IOException {
-        this.outputStream.close();
-    }
-
-    public PcmSampleEncoding getEncoding() {
-        return this.encoding;
-    }
-
-    private void writeSignedByte(final float sample) throws IOException {
-        final byte value;
-        if (sample < 0F) {
-            value = (byte) Math.round(-sample * Byte.MIN_VALUE);
-        } else if (sample > 0F) {
-            value = (byte) Math.round(sample * Byte.MAX_VALUE);
-        } else {
-            value = 0;
+    public void write(final float[] samples, final int offset, final int length) throws IOException {
+        final int chunkSampleCount = Math.min(length, MAX_CHUNK_SAMPLE_COUNT);
+        if (this.chunk.length < this.encoder.getByteCount(chunkSampleCount)) {
+            this.chunk = new byte[this.encoder.getByteCount(chunkSampleCount)];
         }
-        this.outputStream.writeByte(value);
-    }
-
-    private void writeUnsignedByte(final float sample) throws IOException {
-        this.outputStream.writeUnsignedByte(Math.round((sample + 1F) * (Byte.MAX_VALUE + 0.5F)));
-    }
-
-    private void writeSignedShort(final float sample, final ByteOrder byteOrder) throws IOException {
-        final short value;
-        if (sample < 0F) {
-            value = (short) Math.round(-sample * Short.MIN_VALUE);
-        } else if (sample > 0F) {
-            value = (short) Math.round(sample * Short.MAX_VALUE);
-        } else {
-            value = 0;
+        for (int i = 0; i < length; i += chunkSampleCount) {
+            final int byteCount = this.encoder.encode(samples, offset + i, Math.min(chunkSampleCount, length - i), this.chunk, 0);
+            this.outputStream.write(this.chunk, 0, byteCount);
         }
-        this.outputStream.writeShort(value, byteOrder);
     }
 
-    private void writeUnsignedShort(final float sample, final ByteOrder byteOrder) throws IOException {
-        this.outputStream.writeUnsignedShort(Math.round((sample + 1F) * (Short.MAX_VALUE + 0.5F)), byteOrder);
-    }
-
-    private void writeSignedMedium(final float sample, final ByteOrder byteOrder) throws IOException {
-        final int value;
-        if (sample < 0F) {
-            value = Math.round(-sample * MathUtil.MEDIUM_MIN_VALUE);
-        } else if (sample > 0F) {
-            value = Math.round(sample * MathUtil.MEDIUM_MAX_VALUE);
-        } else {
-            value = 0;
-        }
-        this.outputStream.writeMedium(value, byteOrder);
-    }
-
-    private void writeUnsignedMedium(final float sample, final ByteOrder byteOrder) throws IOException {
-        this.outputStream.writeUnsignedMedium(Math.round((sample + 1F) * (MathUtil.MEDIUM_MAX_VALUE + 0.5F)), byteOrder);
-    }
-
-    private void writeSignedInt(final float sample, final ByteOrder byteOrder) throws IOException {
-        final int value;
-        if (sample < 0F) {
-            value = (int) Math.round((double) -sample * Integer.MIN_VALUE);
-        } else if (sample > 0F) {
-            value = (int) Math.round((double) sample * Integer.MAX_VALUE);
-        } else {
-            value = 0;
-        }
-        this.outputStream.writeInt(value, byteOrder);
+    @Override
+    public void close() throws IOException {
+        this.outputStream.close();
     }
 
-    private void writeUnsignedInt(final float sample, final ByteOrder byteOrder) throws IOException {
-        this.outputStream.writeUnsignedInt(Math.round((sample + 1F) * (Integer.MAX_VALUE + 0.5D)), byteOrder);
+    public PcmSampleEncoding getEncoding() {
+        return this.encoder.getEncoding();
     }
 
 }
@@ -0,0 +1,204 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.io.pcm;
+
+import net.raphimc.audiomixer.util.PcmSampleEncoding;
+import net.raphimc.audiomixer.util.math.MathUtil;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Converts whole byte arrays at once. The conversion is identical to reading the samples one by one with PcmAudioInputStream.
+public class PcmSampleDecoder {
+
+    private static final VarHandle SHORT_BE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle SHORT_LE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int DIRECT_BUFFER_CHUNK_SIZE = 8192;
+
+    private final PcmSampleEncoding encoding;
+    private byte[] directBufferChunk;
+
+    public PcmSampleDecoder(final PcmSampleEncoding encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * @return The number of bytes read from src
+     */
+    public int decode(final byte[] src, final int srcOffset, final float[] samples, final int offset, final int length) {
+        final int byteCount = this.getByteCount(length);
+        if (offset < 0 || length < 0 || offset + length > samples.length) {
+            throw new IndexOutOfBoundsException("Sample range out of bounds: " + offset + " + " + length + " > " + samples.length);
+        }
+        if (srcOffset < 0 || srcOffset + byteCount > src.length) {
+            throw new IndexOutOfBoundsException("Byte range out of bounds: " + srcOffset + " + " + byteCount + " > " + src.length);
+        }
+        final boolean bigEndian = this.encoding.byteOrder() == ByteOrder.BIG_ENDIAN;
+        switch (this.encoding) {
+            case S8 -> decodeSignedByte(src, srcOffset, samples, offset, length);
+            case U8 -> decodeUnsignedByte(src, srcOffset, samples, offset, length);
+            case S16_BE, S16_LE -> decodeSignedShort(src, srcOffset, samples, offset, length, bigEndian);
+            case U16_BE, U16_LE -> decodeUnsignedShort(src, srcOffset, samples, offset, length, bigEndian);
+            case S24_BE, S24_LE -> decodeSignedMedium(src, srcOffset, samples, offset, length, bigEndian);
+            case U24_BE, U24_LE -> decodeUnsignedMedium(src, srcOffset, samples, offset, length, bigEndian);
+            case S32_BE, S32_LE -> decodeSignedInt(src, srcOffset, samples, offset, length, bigEndian);
+            case U32_BE, U32_LE -> decodeUnsignedInt(src, srcOffset, samples, offset, length, bigEndian);
+            case F32_BE, F32_LE -> decodeFloat(src, srcOffset, samples, offset, length, bigEndian);
+            case F64_BE, F64_LE -> decodeDouble(src, srcOffset, samples, offset, length, bigEndian);
+            default -> throw new IllegalStateException("Unsupported PCM format: " + this.encoding);
+        }
+        return byteCount;
+    }
+
+    // Heap buffers are decoded in place, direct buffers are decoded in chunks through a reused array
+    public void decode(final ByteBuffer src, final float[] samples, final int offset, final int length) {
+        final int byteCount = this.getByteCount(length);
+        if (src.remaining() < byteCount) {
+            throw new IllegalArgumentException("Not enough data in buffer: " + src.remaining() + " < " + byteCount);
+        }
+        if (src.hasArray()) {
+            this.decode(src.array(), src.arrayOffset() + src.position(), samples, offset, length);
+            src.position(src.position() + byteCount);
+        } else {
+            if (this.directBufferChunk == null) {
+                this.directBufferChunk = new byte[DIRECT_BUFFER_CHUNK_SIZE];
+            }
+            final int chunkSampleCount = DIRECT_BUFFER_CHUNK_SIZE / this.encoding.bytesPerSample();
+            for (int i = 0; i < length; i += chunkSampleCount) {
+                final int chunkLength = Math.min(chunkSampleCount, length - i);
+                src.get(this.directBufferChunk, 0, this.getByteCount(chunkLength));
+                this.decode(this.directBufferChunk, 0, samples, offset + i, chunkLength);
+            }
+        }
+    }
+
+    public int getByteCount(final int sampleCount) {
+        return Math.multiplyExact(sampleCount, this.encoding.bytesPerSample());
+    }
+
+    public PcmSampleEncoding getEncoding() {
+        return this.encoding;
+    }
+
+    private static void decodeSignedByte(final byte[] src, final int srcOffset, final float[] samples, final int offset, final int length) {
+        for (int i = 0; i < length; i++) {
+            final byte value = src[srcOffset + i];
+            if (value < 0) {
+                samples[offset + i] = -(float) value / Byte.MIN_VALUE;
+            } else if (value > 0) {
+                samples[offset + i] = (float) value / Byte.MAX_VALUE;
+            } else {
+                samples[offset + i] = 0F;
+            }
+        }
+    }
+
+    private static void decodeUnsignedByte(final byte[] src, final int srcOffset, final float[] samples, final int offset, final int length) {
+        for (int i = 0; i < length; i++) {
+            samples[offset + i] = (src[srcOffset + i] & 0xFF) / (Byte.MAX_VALUE + 0.5F) - 1F;
+        }
+    }
+
+    private static void decodeSignedShort(final byte[] src, final int srcOffset, final float[] samples, final int offset, final int length, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final short value = bigEndian ? (short) SHORT_BE.get(src, srcOffset + i * Short.BYTES) : (short) SHORT_LE.get(src, srcOffset + i * Short.BYTES);
+            if (value < 0) {
+                samples[offset + i] = -(float) value / Short.MIN_VALUE;
+            } else if (value > 0) {
+                samples[offset + i] = (float) value / Short.MAX_VALUE;
+            } else {
+                samples[offset + i] = 0F;
+            }
+        }
+    }
+
+    private static void decodeUnsignedShort(final byte[] src, final int srcOffset, final float[] samples, final int offset, final int length, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final short value = bigEndian ? (short) SHORT_BE.get(src, srcOffset + i * Short.BYTES) : (short) SHORT_LE.get(src, srcOffset + i * Short.BYTES);
+            samples[offset + i] = (value & 0xFFFF) / (Short.MAX_VALUE + 0.5F) - 1F;
+        }
+    }
+
+    private static void decodeSignedMedium(final byte[] src, final int srcOffset, final float[] samples, final int offset, final int length, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final int value = (readUnsignedMedium(src, srcOffset + i * MathUtil.MEDIUM_BYTES, bigEndian) << 8) >> 8;
+            if (value < 0) {
+                samples[offset + i] = -(float) value / MathUtil.MEDIUM_MIN_VALUE;
+            } else if (value > 0) {
+                samples[offset + i] = (float) value / MathUtil.MEDIUM_MAX_VALUE;
+            } else {
+                samples[offset + i] = 0F;
+            }
+        }
+    }
+
+    private static void decodeUnsignedMedium(final byte[] src, final int srcOffset, final float[] samples, final int offset, final int length, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            samples[offset + i] = readUnsignedMedium(src, srcOffset + i * MathUtil.MEDIUM_BYTES, bigEndian) / (MathUtil.MEDIUM_MAX_VALUE + 0.5F) - 1F;
+        }
+    }
+
+    private static void decodeSignedInt(final byte[] src, final int srcOffset, final float[] samples, final int offset, final int length, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final int value = bigEndian ? (int) INT_BE.get(src, srcOffset + i * Integer.BYTES) : (int) INT_LE.get(src, srcOffset + i * Integer.BYTES);
+            if (value < 0) {
+                samples[offset + i] = (float) (-(double) value / Integer.MIN_VALUE);
+            } else if (value > 0) {
+                samples[offset + i] = (float) ((double) value / Integer.MAX_VALUE);
+            } else {
+                samples[offset + i] = 0F;
+            }
+        }
+    }
+
+    private static void decodeUnsignedInt(final byte[] src, final int srcOffset, final float[] samples, final int offset, final int length, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final int value = bigEndian ? (int) INT_BE.get(src, srcOffset + i * Integer.BYTES) : (int) INT_LE.get(src, srcOffset + i * Integer.BYTES);
+            samples[offset + i] = (float) (Integer.toUnsignedLong(value) / (Integer.MAX_VALUE + 0.5D)) - 1F;
+        }
+    }
+
+    private static void decodeFloat(final byte[] src, final int srcOffset, final float[] samples, final int offset, final int length, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final int bits = bigEndian ? (int) INT_BE.get(src, srcOffset + i * Float.BYTES) : (int) INT_LE.get(src, srcOffset + i * Float.BYTES);
+            samples[offset + i] = Float.intBitsToFloat(bits);
+        }
+    }
+
+    private static void decodeDouble(final byte[] src, final int srcOffset, final float[] samples, final int offset, final int length, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final long bits = bigEndian ? (long) LONG_BE.get(src, srcOffset + i * Double.BYTES) : (long) LONG_LE.get(src, srcOffset + i * Double.BYTES);
+            samples[offset + i] = (float) Double.longBitsToDouble(bits);
+        }
+    }
+
+    private static int readUnsignedMedium(final byte[] src, final int index, final boolean bigEndian) {
+        if (bigEndian) {
+            return ((src[index] & 0xFF) << 16) | ((src[index + 1] & 0xFF) << 8) | (src[index + 2] & 0xFF);
+        } else {
+            return ((src[index + 2] & 0xFF) << 16) | ((src[index + 1] & 0xFF) << 8) | (src[index] & 0xFF);
+        }
+    }
+
+}
@@ -0,0 +1,258 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.io.pcm;
+
+import net.raphimc.audiomixer.util.PcmSampleEncoding;
+import net.raphimc.audiomixer.util.math.MathUtil;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Converts whole sample arrays at once. The conversion (Including rounding and range checks) is identical to writing the samples one by one with PcmAudioOutputStream.
+public class PcmSampleEncoder {
+
+    private static final VarHandle SHORT_BE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle SHORT_LE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int UNSIGNED_BYTE_MAX_VALUE = 0xFF;
+    private static final int UNSIGNED_SHORT_MAX_VALUE = 0xFFFF;
+    private static final int UNSIGNED_MEDIUM_MAX_VALUE = 0xFFFFFF;
+    private static final long UNSIGNED_INT_MAX_VALUE = 0xFFFFFFFFL;
+    private static final int DIRECT_BUFFER_CHUNK_SIZE = 8192;
+
+    private final PcmSampleEncoding encoding;
+    private byte[] directBufferChunk;
+
+    public PcmSampleEncoder(final PcmSampleEncoding encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * @return The number of bytes written to dst
+     */
+    public int encode(final float[] samples, final int offset, final int length, final byte[] dst, final int dstOffset) {
+        final int byteCount = this.getByteCount(length);
+        if (offset < 0 || length < 0 || offset + length > samples.length) {
+            throw new IndexOutOfBoundsException("Sample range out of bounds: " + offset + " + " + length + " > " + samples.length);
+        }
+        if (dstOffset < 0 || dstOffset + byteCount > dst.length) {
+            throw new IndexOutOfBoundsException("Byte range out of bounds: " + dstOffset + " + " + byteCount + " > " + dst.length);
+        }
+        final boolean bigEndian = this.encoding.byteOrder() == ByteOrder.BIG_ENDIAN;
+        switch (this.encoding) {
+            case S8 -> encodeSignedByte(samples, offset, length, dst, dstOffset);
+            case U8 -> encodeUnsignedByte(samples, offset, length, dst, dstOffset);
+            case S16_BE, S16_LE -> encodeSignedShort(samples, offset, length, dst, dstOffset, bigEndian);
+            case U16_BE, U16_LE -> encodeUnsignedShort(samples, offset, length, dst, dstOffset, bigEndian);
+            case S24_BE, S24_LE -> encodeSignedMedium(samples, offset, length, dst, dstOffset, bigEndian);
+            case U24_BE, U24_LE -> encodeUnsignedMedium(samples, offset, length, dst, dstOffset, bigEndian);
+            case S32_BE, S32_LE -> encodeSignedInt(samples, offset, length, dst, dstOffset, bigEndian);
+            case U32_BE, U32_LE -> encodeUnsignedInt(samples, offset, length, dst, dstOffset, bigEndian);
+            case F32_BE, F32_LE -> encodeFloat(samples, offset, length, dst, dstOffset, bigEndian);
+            case F64_BE, F64_LE -> encodeDouble(samples, offset, length, dst, dstOffset, bigEndian);
+            default -> throw new IllegalStateException("Unsupported PCM format: " + this.encoding);
+        }
+        return byteCount;
+    }
+
+    // Heap buffers are encoded in place, direct buffers are encoded in chunks through a reused array
+    public void encode(final float[] samples, final int offset, final int length, final ByteBuffer dst) {
+        final int byteCount = this.getByteCount(length);
+        if (dst.remaining() < byteCount) {
+            throw new IllegalArgumentException("Not enough space in buffer: " + dst.remaining() + " < " + byteCount);
+        }
+        if (dst.hasArray()) {
+            this.encode(samples, offset, length, dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + byteCount);
+        } else {
+            if (this.directBufferChunk == null) {
+                this.directBufferChunk = new byte[DIRECT_BUFFER_CHUNK_SIZE];
+            }
+            final int chunkSampleCount = DIRECT_BUFFER_CHUNK_SIZE / this.encoding.bytesPerSample();
+            for (int i = 0; i < length; i += chunkSampleCount) {
+                final int chunkByteCount = this.encode(samples, offset + i, Math.min(chunkSampleCount, length - i), this.directBufferChunk, 0);
+                dst.put(this.directBufferChunk, 0, chunkByteCount);
+            }
+        }
+    }
+
+    public int getByteCount(final int sampleCount) {
+        return Math.multiplyExact(sampleCount, this.encoding.bytesPerSample());
+    }
+
+    public PcmSampleEncoding getEncoding() {
+        return this.encoding;
+    }
+
+    private static void encodeSignedByte(final float[] samples, final int offset, final int length, final byte[] dst, final int dstOffset) {
+        for (int i = 0; i < length; i++) {
+            final float sample = samples[offset + i];
+            final byte value;
+            if (sample < 0F) {
+                value = (byte) Math.round(-sample * Byte.MIN_VALUE);
+            } else if (sample > 0F) {
+                value = (byte) Math.round(sample * Byte.MAX_VALUE);
+            } else {
+                value = 0;
+            }
+            dst[dstOffset + i] = value;
+        }
+    }
+
+    private static void encodeUnsignedByte(final float[] samples, final int offset, final int length, final byte[] dst, final int dstOffset) {
+        for (int i = 0; i < length; i++) {
+            final int value = Math.round((samples[offset + i] + 1F) * (Byte.MAX_VALUE + 0.5F));
+            if (value < 0 || value > UNSIGNED_BYTE_MAX_VALUE) {
+                throw new IllegalArgumentException("Value out of range for unsigned byte: " + value);
+            }
+            dst[dstOffset + i] = (byte) value;
+        }
+    }
+
+    private static void encodeSignedShort(final float[] samples, final int offset, final int length, final byte[] dst, final int dstOffset, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final float sample = samples[offset + i];
+            final short value;
+            if (sample < 0F) {
+                value = (short) Math.round(-sample * Short.MIN_VALUE);
+            } else if (sample > 0F) {
+                value = (short) Math.round(sample * Short.MAX_VALUE);
+            } else {
+                value = 0;
+            }
+            if (bigEndian) {
+                SHORT_BE.set(dst, dstOffset + i * Short.BYTES, value);
+            } else {
+                SHORT_LE.set(dst, dstOffset + i * Short.BYTES, value);
+            }
+        }
+    }
+
+    private static void encodeUnsignedShort(final float[] samples, final int offset, final int length, final byte[] dst, final int dstOffset, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final int value = Math.round((samples[offset + i] + 1F) * (Short.MAX_VALUE + 0.5F));
+            if (value < 0 || value > UNSIGNED_SHORT_MAX_VALUE) {
+                throw new IllegalArgumentException("Value out of range for unsigned short: " + value);
+            }
+            if (bigEndian) {
+                SHORT_BE.set(dst, dstOffset + i * Short.BYTES, (short) value);
+            } else {
+                SHORT_LE.set(dst, dstOffset + i * Short.BYTES, (short) value);
+            }
+        }
+    }
+
+    private static void encodeSignedMedium(final float[] samples, final int offset, final int length, final byte[] dst, final int dstOffset, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final float sample = samples[offset + i];
+            final int value;
+            if (sample < 0F) {
+                value = Math.round(-sample * MathUtil.MEDIUM_MIN_VALUE);
+            } else if (sample > 0F) {
+                value = Math.round(sample * MathUtil.MEDIUM_MAX_VALUE);
+            } else {
+                value = 0;
+            }
+            if (value < MathUtil.MEDIUM_MIN_VALUE || value > MathUtil.MEDIUM_MAX_VALUE) {
+                throw new IllegalArgumentException("Value out of range for medium: " + value);
+            }
+            writeMedium(dst, dstOffset + i * MathUtil.MEDIUM_BYTES, value, bigEndian);
+        }
+    }
+
+    private static void encodeUnsignedMedium(final float[] samples, final int offset, final int length, final byte[] dst, final int dstOffset, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final int value = Math.round((samples[offset + i] + 1F) * (MathUtil.MEDIUM_MAX_VALUE + 0.5F));
+            if (value < 0 || value > UNSIGNED_MEDIUM_MAX_VALUE) {
+                throw new IllegalArgumentException("Value out of range for unsigned medium: " + value);
+            }
+            writeMedium(dst, dstOffset + i * MathUtil.MEDIUM_BYTES, value, bigEndian);
+        }
+    }
+
+    private static void encodeSignedInt(final float[] samples, final int offset, final int length, final byte[] dst, final int dstOffset, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final float sample = samples[offset + i];
+            final int value;
+            if (sample < 0F) {
+                value = (int) Math.round((double) -sample * Integer.MIN_VALUE);
+            } else if (sample > 0F) {
+                value = (int) Math.round((double) sample * Integer.MAX_VALUE);
+            } else {
+                value = 0;
+            }
+            if (bigEndian) {
+                INT_BE.set(dst, dstOffset + i * Integer.BYTES, value);
+            } else {
+                INT_LE.set(dst, dstOffset + i * Integer.BYTES, value);
+            }
+        }
+    }
+
+    private static void encodeUnsignedInt(final float[] samples, final int offset, final int length, final byte[] dst, final int dstOffset, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            final long value = Math.round((samples[offset + i] + 1F) * (Integer.MAX_VALUE + 0.5D));
+            if (value < 0 || value > UNSIGNED_INT_MAX_VALUE) {
+                throw new IllegalArgumentException("Value out of range for unsigned int: " + value);
+            }
+            if (bigEndian) {
+                INT_BE.set(dst, dstOffset + i * Integer.BYTES, (int) value);
+            } else {
+                INT_LE.set(dst, dstOffset + i * Integer.BYTES, (int) value);
+            }
+        }
+    }
+
+    private static void encodeFloat(final float[] samples, final int offset, final int length, final byte[] dst, final int dstOffset, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            if (bigEndian) {
+                INT_BE.set(dst, dstOffset + i * Float.BYTES, Float.floatToRawIntBits(samples[offset + i]));
+            } else {
+                INT_LE.set(dst, dstOffset + i * Float.BYTES, Float.floatToRawIntBits(samples[offset + i]));
+            }
+        }
+    }
+
+    private static void encodeDouble(final float[] samples, final int offset, final int length, final byte[] dst, final int dstOffset, final boolean bigEndian) {
+        for (int i = 0; i < length; i++) {
+            if (bigEndian) {
+                LONG_BE.set(dst, dstOffset + i * Double.BYTES, Double.doubleToRawLongBits(samples[offset + i]));
+            } else {
+                LONG_LE.set(dst, dstOffset + i * Double.BYTES, Double.doubleToRawLongBits(samples[offset + i]));
+            }
+        }
+    }
+
+    private static void writeMedium(final byte[] dst, final int index, final int value, final boolean bigEndian) {
+        if (bigEndian) {
+            dst[index] = (byte) (value >>> 16);
+            dst[index + 1] = (byte) (value >>> 8);
+            dst[index + 2] = (byte) value;
+        } else {
+            dst[index] = (byte) value;
+            dst[index + 1] = (byte) (value >>> 8);
+            dst[index + 2] = (byte) (value >>> 16);
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.io.wav;
+
+import net.raphimc.audiomixer.io.AudioInputStream;
+import net.raphimc.audiomixer.io.pcm.PcmSampleDecoder;
+import net.raphimc.audiomixer.io.wav.riff.RiffInputStream;
+import net.raphimc.audiomixer.util.PcmAudioFormat;
+import net.raphimc.audiomixer.util.io.ByteBufferInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+// Maps the whole WAV file into memory, parses the header once and decodes the samples directly from the mapped data chunk
+public class MappedWavPcmAudioInputStream extends AudioInputStream {
+
+    private static final long UNKNOWN_DATA_CHUNK_LENGTH = 0xFFFFFFFFL; // Written by some streaming encoders
+
+    private final PcmAudioFormat pcmFormat;
+    private final long channelMask;
+    private final ByteBuffer data;
+    private final PcmSampleDecoder decoder;
+    private final float[] singleSample = new float[1];
+
+    public MappedWavPcmAudioInputStream(final Path path) throws IOException {
+        this(new ByteBufferInputStream(map(path)));
+    }
+
+    private MappedWavPcmAudioInputStream(final ByteBufferInputStream inputStream) throws IOException {
+        this(WavHeader.read(new RiffInputStream(inputStream)), inputStream.getBuffer()); // Parses the header up to the start of the data chunk
+    }
+
+    /**
+     * @param header The header of the WAV file
+     * @param file   The mapped WAV file, positioned at the start of the data chunk (Where parsing the header stopped)
+     */
+    public MappedWavPcmAudioInputStream(final WavHeader header, final ByteBuffer file) throws IOException {
+        super(header.format());
+        if (header.encoding() == null) {
+            throw new IOException("Unsupported format: Compressed WAV streams have to be read with WavAdpcmAudioInputStream");
+        }
+        this.pcmFormat = new PcmAudioFormat(header.format(), header.encoding());
+        this.channelMask = header.channelMask();
+        long dataLength = file.remaining();
+        if (header.dataChunk().length() != UNKNOWN_DATA_CHUNK_LENGTH) { // The data chunk might be longer than the file if it was truncated
+            dataLength = Math.min(header.dataChunk().remaining(), dataLength);
+        }
+        final int frameAlignedDataLength = (int) (dataLength - dataLength % this.pcmFormat.bytesPerFrame());
+        this.data = file.slice(file.position(), frameAlignedDataLength);
+        this.decoder = new PcmSampleDecoder(this.pcmFormat.encoding());
+    }
+
+    @Override
+    public float read() throws IOException {
+        if (this.read(this.singleSample, 0, 1) == 0) {
+            throw new EOFException();
+        }
+        return this.singleSample[0];
+    }
+
+    @Override
+    public int read(final float[] samples, final int offset, final int length) {
+        Objects.checkFromIndexSize(offset, length, samples.length);
+        final int sampleCount = Math.min(length, this.data.remaining() / this.pcmFormat.encoding().bytesPerSample());
+        this.decoder.decode(this.data, samples, offset, sampleCount);
+        return sampleCount;
+    }
+
+    @Override
+    public long getRemainingSampleCountHint() {
+        return this.data.remaining() / this.pcmFormat.encoding().bytesPerSample();
+    }
+
+    @Override
+    public int getInitialSampleCapacity() {
+        return (int) Math.min(this.getRemainingSampleCountHint(), MAX_ARRAY_LENGTH); // Exact, because the data was limited to the mapped file
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public void seek(final long frameIndex) {
+        if (frameIndex < 0 || frameIndex > this.getFrameCount()) {
+            throw new IndexOutOfBoundsException("Frame index out of bounds: " + frameIndex + " > " + this.getFrameCount());
+        }
+        this.data.position((int) (frameIndex * this.pcmFormat.bytesPerFrame()));
+    }
+
+    public long getFramePosition() {
+        return this.data.position() / this.pcmFormat.bytesPerFrame();
+    }
+
+    public long getFrameCount() {
+        return this.data.limit() / this.pcmFormat.bytesPerFrame();
+    }
+
+    public ByteBuffer getDataBuffer() {
+        return this.data.duplicate().position(0);
+    }
+
+    public PcmAudioFormat getPcmFormat() {
+        return this.pcmFormat;
+    }
+
+    public long getChannelMask() {
+        return this.channelMask;
+    }
+
+    private static MappedByteBuffer map(final Path path) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (fileChannel.size() > Integer.MAX_VALUE) {
+                throw new IOException("WAV file is too large to be memory mapped: " + fileChannel.size() + " bytes");
+            }
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size()); // The mapping stays valid after the channel is closed
+        }
+    }
+
+}
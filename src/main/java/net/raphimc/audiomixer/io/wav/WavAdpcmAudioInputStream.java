@@ -0,0 +1,153 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.io.wav;
+
+import net.raphimc.audiomixer.io.AudioInputStream;
+import net.raphimc.audiomixer.io.adpcm.AdpcmCodec;
+import net.raphimc.audiomixer.io.wav.riff.RiffInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+public class WavAdpcmAudioInputStream extends AudioInputStream {
+
+    private static final long UNKNOWN_DATA_CHUNK_LENGTH = 0xFFFFFFFFL; // Written by some streaming encoders
+
+    private final RiffInputStream riffInputStream;
+    private final WavHeader header;
+    private final AdpcmCodec codec;
+    private final byte[] block;
+    private final short[] blockSamples;
+    private int blockSampleCount;
+    private int blockSampleIndex;
+    private long remainingFrameCount;
+
+    public WavAdpcmAudioInputStream(final InputStream inputStream) throws IOException {
+        this(new RiffInputStream(inputStream));
+    }
+
+    private WavAdpcmAudioInputStream(final RiffInputStream riffInputStream) throws IOException {
+        this(riffInputStream, WavHeader.read(riffInputStream));
+    }
+
+    public WavAdpcmAudioInputStream(final RiffInputStream riffInputStream, final WavHeader header) throws IOException {
+        super(header.format());
+        if (header.adpcmCodec() == null) {
+            throw new IOException("Unsupported format: Uncompressed WAV streams have to be read with WavPcmAudioInputStream");
+        }
+        this.riffInputStream = riffInputStream;
+        this.header = header;
+        this.codec = header.adpcmCodec();
+        this.block = new byte[this.codec.getBlockAlign()];
+        this.blockSamples = new short[this.codec.getFramesPerBlock() * this.codec.getChannels()];
+        this.remainingFrameCount = header.factFrameCount() != -1 ? header.factFrameCount() : Long.MAX_VALUE; // The last block is usually padded
+    }
+
+    @Override
+    public float read() throws IOException {
+        if (this.blockSampleIndex >= this.blockSampleCount && !this.readBlock()) {
+            throw new EOFException();
+        }
+        return toFloat(this.blockSamples[this.blockSampleIndex++]);
+    }
+
+    @Override
+    public int read(final float[] samples, final int offset, final int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, samples.length);
+        int read = 0;
+        while (read < length) {
+            if (this.blockSampleIndex >= this.blockSampleCount && !this.readBlock()) {
+                break;
+            }
+            final int count = Math.min(length - read, this.blockSampleCount - this.blockSampleIndex);
+            for (int i = 0; i < count; i++) {
+                samples[offset + read + i] = toFloat(this.blockSamples[this.blockSampleIndex + i]);
+            }
+            this.blockSampleIndex += count;
+            read += count;
+        }
+        return read;
+    }
+
+    /**
+     * Reads the remaining (Not yet decoded) blocks without decoding them.
+     */
+    public byte[] readRemainingBlocks() throws IOException {
+        if (this.blockSampleIndex < this.blockSampleCount) {
+            throw new IllegalStateException("The current block has not been fully read yet");
+        }
+        return this.riffInputStream.readAllBytes();
+    }
+
+    /**
+     * @return The number of frames contained in the given blocks (As returned by {@link #readRemainingBlocks()}), limited by the frame count of the fact chunk
+     */
+    public int getFrameCount(final byte[] blocks) {
+        final long frameCount = (long) blocks.length / this.codec.getBlockAlign() * this.codec.getFramesPerBlock() + this.codec.getFrameCount(blocks.length % this.codec.getBlockAlign());
+        return Math.toIntExact(Math.min(frameCount, this.remainingFrameCount));
+    }
+
+    @Override
+    public long getRemainingSampleCountHint() {
+        if (this.header.dataChunk().length() == UNKNOWN_DATA_CHUNK_LENGTH) {
+            return -1;
+        }
+        final long remainingBytes = this.header.dataChunk().remaining();
+        final long frameCount = remainingBytes / this.codec.getBlockAlign() * this.codec.getFramesPerBlock() + this.codec.getFrameCount((int) (remainingBytes % this.codec.getBlockAlign()));
+        return (this.blockSampleCount - this.blockSampleIndex) + Math.min(frameCount, this.remainingFrameCount) * this.codec.getChannels();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.riffInputStream.close();
+    }
+
+    public AdpcmCodec getCodec() {
+        return this.codec;
+    }
+
+    public WavHeader getHeader() {
+        return this.header;
+    }
+
+    private boolean readBlock() throws IOException {
+        final int blockLength = this.riffInputStream.readNBytes(this.block, 0, this.block.length);
+        final int frameCount = (int) Math.min(this.codec.getFrameCount(blockLength), this.remainingFrameCount);
+        if (frameCount == 0) {
+            return false;
+        }
+        this.codec.decodeBlock(this.block, 0, this.blockSamples, 0, frameCount);
+        this.remainingFrameCount -= frameCount;
+        this.blockSampleCount = frameCount * this.codec.getChannels();
+        this.blockSampleIndex = 0;
+        return true;
+    }
+
+    private static float toFloat(final short value) {
+        if (value < 0) {
+            return -(float) value / Short.MIN_VALUE;
+        } else if (value > 0) {
+            return (float) value / Short.MAX_VALUE;
+        } else {
+            return 0F;
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.io.wav;
+
+import net.raphimc.audiomixer.io.adpcm.AdpcmCodec;
+import net.raphimc.audiomixer.io.wav.riff.RiffChunk;
+import net.raphimc.audiomixer.io.wav.riff.RiffInputStream;
+import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.PcmSampleEncoding;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * The header of a WAV stream. Either encoding (PCM and IEEE float) or adpcmCodec (IMA and MS ADPCM) is set.
+ *
+ * @param factFrameCount The frame count from the fact chunk or -1 if there is none
+ * @param dataChunk      The data chunk. The riff input stream is positioned at its start.
+ */
+public record WavHeader(AudioFormat format, PcmSampleEncoding encoding, AdpcmCodec adpcmCodec, long channelMask, long factFrameCount, RiffChunk dataChunk) {
+
+    private static final int WAVE_FORMAT_PCM = 0x0001;
+    private static final int WAVE_FORMAT_MS_ADPCM = 0x0002;
+    private static final int WAVE_FORMAT_IEEE_FLOAT = 0x0003;
+    private static final int WAVE_FORMAT_IMA_ADPCM = 0x0011;
+    private static final int WAVE_FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private static final int SUBTYPE_LENGTH = 16;
+    private static final byte[] SUBTYPE_PCM = {
+        (byte) 0x01, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x10, (byte) 0x00,
+        (byte) 0x80, (byte) 0x00, (byte) 0x00, (byte) 0xAA, (byte) 0x00, (byte) 0x38, (byte) 0x9B, (byte) 0x71
+    };
+    private static final byte[] SUBTYPE_IEEE_FLOAT = {
+        (byte) 0x03, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x10, (byte) 0x00,
+        (byte) 0x80, (byte) 0x00, (byte) 0x00, (byte) 0xAA, (byte) 0x00, (byte) 0x38, (byte) 0x9B, (byte) 0x71
+    };
+    private static final int ADPCM_BITS_PER_SAMPLE = 4;
+
+    public static WavHeader read(final RiffInputStream riffInputStream) throws IOException {
+        if (!riffInputStream.getRootChunk().identifier().equals("WAVE")) {
+            throw new IOException("Invalid WAV stream: Expected 'WAVE' but got '" + riffInputStream.getRootChunk().identifier() + "'");
+        }
+        final AudioFormat format;
+        final PcmSampleEncoding encoding;
+        final AdpcmCodec adpcmCodec;
+        final long channelMask;
+        try (RiffChunk fmtChunk = riffInputStream.findNextChunk("fmt ")) {
+            int formatTag = riffInputStream.readUnsignedShort();
+            final int channels = riffInputStream.readUnsignedShort();
+            final long sampleRate = riffInputStream.readUnsignedInt();
+            riffInputStream.readUnsignedInt(); // byte rate
+            final int blockAlign = riffInputStream.readUnsignedShort();
+            final int bitsPerSample = riffInputStream.readUnsignedShort();
+            format = new AudioFormat(sampleRate, channels);
+
+            if (formatTag == WAVE_FORMAT_EXTENSIBLE) {
+                final int size = riffInputStream.readUnsignedShort();
+                if (size < 22) {
+                    throw new IOException("Invalid WAVE_FORMAT_EXTENSIBLE size: Expected at least 22 but got " + size);
+                }
+                final int validBitsPerSample = riffInputStream.readUnsignedShort();
+                if (validBitsPerSample != bitsPerSample) {
+                    throw new IOException("Unsupported valid bits per sample: " + validBitsPerSample);
+                }
+                channelMask = riffInputStream.readUnsignedInt();
+                final byte[] subFormat = riffInputStream.readBytes(SUBTYPE_LENGTH);
+                if (Arrays.equals(subFormat, SUBTYPE_PCM)) {
+                    formatTag = WAVE_FORMAT_PCM;
+                } else if (Arrays.equals(subFormat, SUBTYPE_IEEE_FLOAT)) {
+                    formatTag = WAVE_FORMAT_IEEE_FLOAT;
+                } else {
+                    throw new IOException("Unsupported subformat: " + HexFormat.of().formatHex(subFormat));
+                }
+            } else {
+                channelMask = 0;
+            }
+
+            encoding = switch (formatTag) {
+                case WAVE_FORMAT_PCM -> switch (bitsPerSample) {
+                    case 8 -> PcmSampleEncoding.U8;
+                    case 16 -> PcmSampleEncoding.S16_LE;
+                    case 24 -> PcmSampleEncoding.S24_LE;
+                    case 32 -> PcmSampleEncoding.S32_LE;
+                    default -> throw new IOException("Unsupported PCM bit depth: " + bitsPerSample);
+                };
+                case WAVE_FORMAT_IEEE_FLOAT -> switch (bitsPerSample) {
+                    case 32 -> PcmSampleEncoding.F32_LE;
+                    case 64 -> PcmSampleEncoding.F64_LE;
+                    default -> throw new IOException("Unsupported IEEE float bit depth: " + bitsPerSample);
+                };
+                case WAVE_FORMAT_IMA_ADPCM, WAVE_FORMAT_MS_ADPCM -> null;
+                default -> throw new IOException("Unsupported format: " + formatTag);
+            };
+            if (encoding == null) {
+                if (bitsPerSample != ADPCM_BITS_PER_SAMPLE) {
+                    throw new IOException("Unsupported ADPCM bit depth: " + bitsPerSample);
+                }
+                try {
+                    adpcmCodec = formatTag == WAVE_FORMAT_IMA_ADPCM ? AdpcmCodec.ima(channels, blockAlign) : readMsAdpcmCodec(riffInputStream, channels, blockAlign);
+                } catch (final IllegalArgumentException e) {
+                    throw new IOException("Invalid ADPCM format", e);
+                }
+            } else {
+                adpcmCodec = null;
+            }
+        }
+
+        long factFrameCount = -1;
+        while (true) {
+            final RiffChunk chunk = riffInputStream.readChunk();
+            if (chunk.identifier().equals("data")) {
+                return new WavHeader(format, encoding, adpcmCodec, channelMask, factFrameCount, chunk);
+            } else if (chunk.identifier().equals("fact") && chunk.length() >= Integer.BYTES) {
+                factFrameCount = riffInputStream.readUnsignedInt();
+            }
+            chunk.close();
+        }
+    }
+
+    private static AdpcmCodec readMsAdpcmCodec(final RiffInputStream riffInputStream, final int channels, final int blockAlign) throws IOException {
+        riffInputStream.readUnsignedShort(); // extension size
+        final int framesPerBlock = riffInputStream.readUnsignedShort();
+        final short[] coefficients = new short[riffInputStream.readUnsignedShort() * 2];
+        for (int i = 0; i < coefficients.length; i++) {
+            coefficients[i] = riffInputStream.readShort();
+        }
+        return AdpcmCodec.ms(channels, blockAlign, framesPerBlock, coefficients);
+    }
+
+}
@@ -18,108 +18,52 @@
 package net.raphimc.audiomixer.io.wav;
 
 import net.raphimc.audiomixer.io.pcm.PcmAudioInputStream;
-import net.raphimc.audiomixer.io.wav.riff.RiffChunk;
 import net.raphimc.audiomixer.io.wav.riff.RiffInputStream;
 import net.raphimc.audiomixer.util.PcmSampleEncoding;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
-import java.util.HexFormat;
 
 public class WavPcmAudioInputStream extends PcmAudioInputStream {
 
-    private static final int WAVE_FORMAT_PCM = 0x0001;
-    private static final int WAVE_FORMAT_IEEE_FLOAT = 0x0003;
-    private static final int WAVE_FORMAT_EXTENSIBLE = 0xFFFE;
+    private static final long UNKNOWN_DATA_CHUNK_LENGTH = 0xFFFFFFFFL; // Written by some streaming encoders
 
-    private static final int SUBTYPE_LENGTH = 16;
-    private static final byte[] SUBTYPE_PCM = {
-        (byte) 0x01, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x10, (byte) 0x00,
-        (byte) 0x80, (byte) 0x00, (byte) 0x00, (byte) 0xAA, (byte) 0x00, (byte) 0x38, (byte) 0x9B, (byte) 0x71
-    };
-    private static final byte[] SUBTYPE_IEEE_FLOAT = {
-        (byte) 0x03, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x10, (byte) 0x00,
-        (byte) 0x80, (byte) 0x00, (byte) 0x00, (byte) 0xAA, (byte) 0x00, (byte) 0x38, (byte) 0x9B, (byte) 0x71
-    };
-
-    private final long channelMask;
+    private final WavHeader header;
 
     public WavPcmAudioInputStream(final InputStream inputStream) throws IOException {
-        this(new CodeBeforeSuper(inputStream));
+        this(new RiffInputStream(inputStream));
     }
 
-    private WavPcmAudioInputStream(final CodeBeforeSuper codeBeforeSuper) {
-        super(codeBeforeSuper.riffInputStream, codeBeforeSuper.sampleRate, codeBeforeSuper.channels, codeBeforeSuper.encoding);
-        this.channelMask = codeBeforeSuper.channelMask;
+    private WavPcmAudioInputStream(final RiffInputStream riffInputStream) throws IOException {
+        this(riffInputStream, WavHeader.read(riffInputStream));
     }
 
-    public long getChannelMask() {
-        return this.channelMask;
+    public WavPcmAudioInputStream(final RiffInputStream riffInputStream, final WavHeader header) throws IOException {
+        super(riffInputStream, header.format(), getPcmEncoding(header));
+        this.header = header;
     }
 
-    private static final class CodeBeforeSuper {
-
-        private final RiffInputStream riffInputStream;
-        private final long sampleRate;
-        private final int channels;
-        private final PcmSampleEncoding encoding;
-        private final long channelMask;
+    @Override
+    public long getRemainingSampleCountHint() {
+        if (this.header.dataChunk().length() == UNKNOWN_DATA_CHUNK_LENGTH) {
+            return -1;
+        }
+        return this.header.dataChunk().remaining() / this.getEncoding().bytesPerSample();
+    }
 
-        private CodeBeforeSuper(final InputStream inputStream) throws IOException {
-            this.riffInputStream = new RiffInputStream(inputStream);
-            if (!this.riffInputStream.getRootChunk().identifier().equals("WAVE")) {
-                throw new IOException("Invalid WAV stream: Expected 'WAVE' but got '" + this.riffInputStream.getRootChunk().identifier() + "'");
-            }
-            try (RiffChunk fmtChunk = this.riffInputStream.findNextChunk("fmt ")) {
-                int format = this.riffInputStream.readUnsignedShort();
-                this.channels = this.riffInputStream.readUnsignedShort();
-                this.sampleRate = this.riffInputStream.readUnsignedInt();
-                this.riffInputStream.readUnsignedInt(); // byte rate
-                this.riffInputStream.readUnsignedShort(); // frame size
-                final int bitsPerSample = this.riffInputStream.readUnsignedShort();
+    public long getChannelMask() {
+        return this.header.channelMask();
+    }
 
-                if (format == WAVE_FORMAT_EXTENSIBLE) {
-                    final int size = this.riffInputStream.readUnsignedShort();
-                    if (size < 22) {
-                        throw new IOException("Invalid WAVE_FORMAT_EXTENSIBLE size: Expected at least 22 but got " + size);
-                    }
-                    final int validBitsPerSample = this.riffInputStream.readUnsignedShort();
-                    if (validBitsPerSample != bitsPerSample) {
-                        throw new IOException("Unsupported valid bits per sample: " + validBitsPerSample);
-                    }
-                    this.channelMask = this.riffInputStream.readUnsignedInt();
-                    final byte[] subFormat = this.riffInputStream.readBytes(SUBTYPE_LENGTH);
-                    if (Arrays.equals(subFormat, SUBTYPE_PCM)) {
-                        format = WAVE_FORMAT_PCM;
-                    } else if (Arrays.equals(subFormat, SUBTYPE_IEEE_FLOAT)) {
-                        format = WAVE_FORMAT_IEEE_FLOAT;
-                    } else {
-                        throw new IOException("Unsupported subformat: " + HexFormat.of().formatHex(subFormat));
-                    }
-                } else {
-                    this.channelMask = 0;
-                }
+    public WavHeader getHeader() {
+        return this.header;
+    }
 
-                this.encoding = switch (format) {
-                    case WAVE_FORMAT_PCM -> switch (bitsPerSample) {
-                        case 8 -> PcmSampleEncoding.U8;
-                        case 16 -> PcmSampleEncoding.S16_LE;
-                        case 24 -> PcmSampleEncoding.S24_LE;
-                        case 32 -> PcmSampleEncoding.S32_LE;
-                        default -> throw new IOException("Unsupported PCM bit depth: " + bitsPerSample);
-                    };
-                    case WAVE_FORMAT_IEEE_FLOAT -> switch (bitsPerSample) {
-                        case 32 -> PcmSampleEncoding.F32_LE;
-                        case 64 -> PcmSampleEncoding.F64_LE;
-                        default -> throw new IOException("Unsupported IEEE float bit depth: " + bitsPerSample);
-                    };
-                    default -> throw new IOException("Unsupported format: " + format);
-                };
-            }
-            this.riffInputStream.findNextChunk("data");
+    private static PcmSampleEncoding getPcmEncoding(final WavHeader header) throws IOException {
+        if (header.encoding() == null) {
+            throw new IOException("Unsupported format: Compressed WAV streams have to be read with WavAdpcmAudioInputStream");
         }
-
+        return header.encoding();
     }
 
 }
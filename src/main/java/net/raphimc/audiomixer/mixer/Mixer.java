@@ -20,13 +20,22 @@ package net.raphimc.audiomixer.mixer;
 import net.raphimc.audiomixer.source.FiniteSource;
 import net.raphimc.audiomixer.source.Source;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.buffer.AudioBufferPool;
+import net.raphimc.audiomixer.util.jfr.AudioMixerEvents;
+import net.raphimc.audiomixer.util.profiling.RenderProfiler;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
@@ -34,41 +43,103 @@ import java.util.stream.Stream;
 
 public class Mixer extends Source implements Collection<Source> {
 
-    private final List<Source> sources = Collections.synchronizedList(new ArrayList<>());
+    private static final Source[] EMPTY_SOURCES = new Source[0];
+
+    // Sources are published as immutable snapshots. add/remove only enqueue a modification, which is applied either at the start of the next render or
+    // when the collection is queried. The render thread never waits for the modification lock, so producers can't block it (and vice versa).
+    private volatile Source[] sources = EMPTY_SOURCES;
+    private final Queue<Modification> pendingModifications = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock modificationLock = new ReentrantLock();
+    private final List<Source> modificationBuffer = new ArrayList<>();
+    private final AudioBufferPool bufferPool = new AudioBufferPool();
+    private final RenderProfiler profiler = new RenderProfiler();
+    private boolean hasFinishedSources; // Whether the snapshot contains finished sources which weren't removed yet. Only used by the render thread.
     private int mixedSourceCount;
     private float processingLoad;
 
     public void limitSourceCount(final int maxSourceCount) {
-        synchronized (this.sources) {
-            if (this.size() > maxSourceCount) {
-                this.sources.subList(0, this.size() - maxSourceCount).clear();
+        this.modify(sources -> {
+            if (sources.size() > maxSourceCount) {
+                sources.subList(0, sources.size() - maxSourceCount).clear();
+                return true;
+            } else {
+                return false;
             }
-        }
+        });
     }
 
     @Override
     public void render(final AudioBuffer buffer) {
+        final Object event = AudioMixerEvents.INSTANCE.beginRenderSlice();
         final long startTime = System.nanoTime();
-        super.render(buffer);
+        if (this.profiler.isEnabled()) {
+            final RenderProfiler previousProfiler = this.profiler.bind();
+            try {
+                super.render(buffer);
+            } finally {
+                RenderProfiler.unbind(previousProfiler);
+            }
+        } else {
+            super.render(buffer);
+        }
         final float neededMillis = (System.nanoTime() - startTime) / 1_000_000F;
         final float availableMillis = buffer.millisecondLength();
         this.processingLoad = (neededMillis / availableMillis) * 100F;
+        if (event != null) {
+            AudioMixerEvents.INSTANCE.commitRenderSlice(event, this.getClass(), buffer.frameCount(), this.mixedSourceCount, this.processingLoad / 100F);
+        }
     }
 
     @Override
     protected void renderInternal(final AudioBuffer buffer) {
-        this.mixedSourceCount = this.size();
+        if (!this.pendingModifications.isEmpty() || this.hasFinishedSources) {
+            this.tryApplyModifications();
+        }
+        this.mixedSourceCount = this.getSourceSnapshot().length;
         this.mix(buffer);
-        this.removeIf(source -> source instanceof FiniteSource finiteSource && finiteSource.isFinished());
+        for (Source source : this.getSourceSnapshot()) {
+            if (source instanceof FiniteSource finiteSource && finiteSource.isFinished()) {
+                this.hasFinishedSources = true;
+                break;
+            }
+        }
+        if (this.hasFinishedSources) {
+            this.tryApplyModifications(); // If another thread holds the lock, the finished sources are removed at the start of the next render
+        }
     }
 
     protected void mix(final AudioBuffer buffer) {
-        final AudioBuffer workBuffer = buffer.createWorkBuffer();
-        this.forEach(source -> {
-            workBuffer.clear();
-            source.render(workBuffer);
-            buffer.add(workBuffer);
-        });
+        final AudioBuffer workBuffer = this.bufferPool.acquireWorkBuffer(buffer);
+        try {
+            final RenderProfiler profiler = RenderProfiler.current();
+            if (profiler == null) {
+                for (Source source : this.getSourceSnapshot()) {
+                    source.renderAdditive(buffer, workBuffer);
+                }
+            } else {
+                for (Source source : this.getSourceSnapshot()) {
+                    final long startTime = System.nanoTime();
+                    source.renderAdditive(buffer, workBuffer);
+                    profiler.recordSource(source, System.nanoTime() - startTime);
+                }
+            }
+        } finally {
+            this.bufferPool.release(workBuffer);
+        }
+    }
+
+    /**
+     * @return The sources which are rendered in the current slice. Unlike the collection methods this never blocks and doesn't apply pending modifications.
+     */
+    protected Source[] getSourceSnapshot() {
+        return this.sources;
+    }
+
+    /**
+     * @return The pool for scratch buffers of this mixer. Must only be used from the render thread.
+     */
+    protected AudioBufferPool getBufferPool() {
+        return this.bufferPool;
     }
 
     public int getMixedSourceCount() {
@@ -79,99 +150,260 @@ public class Mixer extends Source implements Collection<Source> {
         return this.processingLoad;
     }
 
+    /**
+     * @return The profiler for the sources, processors and automations rendered by this mixer. It is disabled by default.
+     */
+    public RenderProfiler getProfiler() {
+        return this.profiler;
+    }
+
     @Override
     public int size() {
-        return this.sources.size();
+        return this.getSources().length;
     }
 
     @Override
     public boolean isEmpty() {
-        return this.sources.isEmpty();
+        return this.getSources().length == 0;
     }
 
     @Override
     public boolean contains(final Object o) {
-        return this.sources.contains(o);
+        for (Source source : this.getSources()) {
+            if (source.equals(o)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public Iterator<Source> iterator() {
-        return this.sources.iterator();
+        return new SnapshotIterator(this.getSources());
     }
 
     @Override
     public Object[] toArray() {
-        return this.sources.toArray();
+        return this.getSources().clone();
     }
 
     @Override
     public <T> T[] toArray(final T[] a) {
-        return this.sources.toArray(a);
+        return Arrays.asList(this.getSources()).toArray(a);
     }
 
     @Override
     public <T> T[] toArray(final IntFunction<T[]> generator) {
-        return this.sources.toArray(generator);
+        return this.toArray(generator.apply(0));
     }
 
     @Override
     public void forEach(final Consumer<? super Source> action) {
-        this.sources.forEach(action);
+        for (Source source : this.getSources()) {
+            action.accept(source);
+        }
     }
 
     @Override
     public boolean add(final Source e) {
-        return this.sources.add(e);
+        this.pendingModifications.add(new Modification(Objects.requireNonNull(e), true));
+        AudioMixerEvents.INSTANCE.sourceAdded(this.getClass(), e.getClass());
+        return true;
     }
 
     @Override
     public boolean remove(final Object o) {
-        return this.sources.remove(o);
+        if (o instanceof Source source) {
+            final boolean contained = this.containsPending(source);
+            this.pendingModifications.add(new Modification(source, false)); // Removing a source which isn't contained is a no-op, so the removal is always queued
+            return contained;
+        } else {
+            return false;
+        }
     }
 
     @Override
     public boolean containsAll(final Collection<?> c) {
-        return this.sources.containsAll(c);
+        return Arrays.asList(this.getSources()).containsAll(c);
     }
 
     @Override
     public boolean addAll(final Collection<? extends Source> c) {
-        return this.sources.addAll(c);
+        for (Source source : c) {
+            this.add(source);
+        }
+        return !c.isEmpty();
     }
 
     @Override
     public boolean removeAll(final Collection<?> c) {
-        return this.sources.removeAll(c);
+        return this.modify(sources -> sources.removeAll(c));
     }
 
     @Override
     public boolean removeIf(final Predicate<? super Source> filter) {
-        return this.sources.removeIf(filter);
+        return this.modify(sources -> sources.removeIf(filter));
     }
 
     @Override
     public boolean retainAll(final Collection<?> c) {
-        return this.sources.retainAll(c);
+        return this.modify(sources -> sources.retainAll(c));
     }
 
     @Override
     public void clear() {
-        this.sources.clear();
+        this.modify(sources -> {
+            final boolean changed = !sources.isEmpty();
+            sources.clear();
+            return changed;
+        });
     }
 
     @Override
     public Spliterator<Source> spliterator() {
-        return this.sources.spliterator();
+        return Spliterators.spliterator(this.getSources(), Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
     }
 
     @Override
     public Stream<Source> stream() {
-        return this.sources.stream();
+        return Arrays.stream(this.getSources());
     }
 
     @Override
     public Stream<Source> parallelStream() {
-        return this.sources.parallelStream();
+        return this.stream().parallel();
+    }
+
+    private Source[] getSources() {
+        if (!this.pendingModifications.isEmpty()) {
+            this.modificationLock.lock();
+            try {
+                this.applyPendingModifications();
+            } finally {
+                this.modificationLock.unlock();
+            }
+        }
+        return this.sources;
+    }
+
+    private boolean modify(final Predicate<List<Source>> modification) {
+        this.modificationLock.lock();
+        try {
+            this.applyPendingModifications();
+            this.modificationBuffer.addAll(Arrays.asList(this.sources));
+            try {
+                if (modification.test(this.modificationBuffer)) {
+                    this.sources = this.modificationBuffer.toArray(EMPTY_SOURCES);
+                    return true;
+                } else {
+                    return false;
+                }
+            } finally {
+                this.modificationBuffer.clear();
+            }
+        } finally {
+            this.modificationLock.unlock();
+        }
+    }
+
+    private void applyPendingModifications() {
+        if (this.pendingModifications.isEmpty()) {
+            return;
+        }
+
+        this.modificationBuffer.addAll(Arrays.asList(this.sources));
+        Modification modification;
+        while ((modification = this.pendingModifications.poll()) != null) {
+            if (modification.add()) {
+                this.modificationBuffer.add(modification.source());
+            } else {
+                this.modificationBuffer.remove(modification.source());
+            }
+        }
+        this.sources = this.modificationBuffer.toArray(EMPTY_SOURCES);
+        this.modificationBuffer.clear();
+    }
+
+    // Best effort without taking the modification lock: Modifications which are applied concurrently might be missed
+    private boolean containsPending(final Source source) {
+        int count = 0;
+        for (Source element : this.sources) {
+            if (element.equals(source)) {
+                count++;
+            }
+        }
+        for (Modification modification : this.pendingModifications) {
+            if (modification.source().equals(source)) {
+                count = modification.add() ? count + 1 : Math.max(count - 1, 0);
+            }
+        }
+        return count > 0;
+    }
+
+    private void tryApplyModifications() {
+        if (this.modificationLock.tryLock()) {
+            try {
+                this.applyPendingModifications();
+                if (this.hasFinishedSources) {
+                    this.removeFinishedSources();
+                }
+            } finally {
+                this.modificationLock.unlock();
+            }
+        }
+    }
+
+    private void removeFinishedSources() {
+        this.modificationBuffer.addAll(Arrays.asList(this.sources));
+        this.modificationBuffer.removeIf(source -> {
+            if (source instanceof FiniteSource finiteSource && finiteSource.isFinished()) {
+                AudioMixerEvents.INSTANCE.sourceFinished(this.getClass(), source.getClass());
+                return true;
+            } else {
+                return false;
+            }
+        });
+        this.sources = this.modificationBuffer.toArray(EMPTY_SOURCES);
+        this.modificationBuffer.clear();
+        this.hasFinishedSources = false;
+    }
+
+    private record Modification(Source source, boolean add) {
+    }
+
+    private final class SnapshotIterator implements Iterator<Source> {
+
+        private final Source[] sources;
+        private int index;
+        private Source lastReturned;
+
+        private SnapshotIterator(final Source[] sources) {
+            this.sources = sources;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.index < this.sources.length;
+        }
+
+        @Override
+        public Source next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.lastReturned = this.sources[this.index++];
+            return this.lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (this.lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            Mixer.this.remove(this.lastReturned);
+            this.lastReturned = null;
+        }
+
     }
 
 }
@@ -19,38 +19,258 @@ package net.raphimc.audiomixer.mixer;
 
 import net.raphimc.audiomixer.source.Source;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.profiling.RenderProfiler;
 
-public class MultithreadedMixer extends Mixer {
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class MultithreadedMixer extends Mixer implements AutoCloseable {
+
+    private static final int BLOCK_SIZE = 32;
+    private static final long DEFAULT_SOURCE_COST = 1;
+    private static final long CLOSED_ROUND = -1;
+
+    private final Worker[] workers;
+    private final AtomicInteger pendingWorkers = new AtomicInteger();
+    private volatile boolean closed;
+    private volatile Thread renderThread;
+    private volatile Throwable workerError;
+    private RenderProfiler activeProfiler;
+    private AudioBuffer[] blockBuffers = new AudioBuffer[0];
+    private Source[] sources = new Source[0];
+    private long[] sourceCosts = new long[0];
+    private Source[] previousSources = new Source[0];
+    private long[] previousSourceCosts = new long[0];
+
+    public MultithreadedMixer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public MultithreadedMixer(final int threadCount) {
+        this(threadCount, new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "AudioMixer Mixer Worker #" + this.threadNumber.incrementAndGet());
+                thread.setPriority(Thread.NORM_PRIORITY + 1);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public MultithreadedMixer(final int threadCount, final ThreadFactory threadFactory) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Thread count must be > 0");
+        }
+        this.workers = new Worker[threadCount];
+        for (int i = 0; i < this.workers.length; i++) {
+            this.workers[i] = new Worker();
+        }
+        for (int i = 1; i < this.workers.length; i++) { // The render thread acts as the first worker
+            final Worker worker = this.workers[i];
+            worker.thread = threadFactory.newThread(worker);
+            worker.thread.start();
+        }
+    }
 
     @Override
     protected void mix(final AudioBuffer buffer) {
-        this.parallelStream().collect(() -> new Accumulator(buffer), Accumulator::accept, Accumulator::combine).finish();
+        this.sources = this.getSourceSnapshot();
+        final int blockCount = (this.sources.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        final int workerCount = Math.min(this.workers.length, blockCount);
+        if (workerCount <= 1 || this.closed) {
+            super.mix(buffer);
+            return;
+        }
+
+        this.restoreSourceCosts();
+        this.prepareBlockBuffers(buffer, blockCount);
+        this.partition(blockCount, workerCount);
+        this.renderThread = Thread.currentThread();
+        this.workerError = null;
+        this.activeProfiler = RenderProfiler.current();
+        this.pendingWorkers.set(workerCount - 1);
+        for (int i = 1; i < workerCount; i++) {
+            final Worker worker = this.workers[i];
+            final long round = worker.round.get();
+            if (round != CLOSED_ROUND && worker.round.compareAndSet(round, round + 1)) {
+                LockSupport.unpark(worker.thread);
+            } else { // The worker thread already exited, because the mixer was closed concurrently
+                worker.mixRound();
+            }
+        }
+        try {
+            this.workers[0].mix(buffer);
+        } finally {
+            while (this.pendingWorkers.get() > 0) {
+                LockSupport.park(this);
+            }
+        }
+        if (this.workerError != null) {
+            throw new RuntimeException("Failed to mix sources", this.workerError);
+        }
+
+        // Pairwise reduction over fixed size source blocks (Independent of thread scheduling and partitioning)
+        for (int step = 1; step < blockCount; step <<= 1) {
+            for (int i = 0; i + step < blockCount; i += step << 1) {
+                this.blockBuffers[i].add(this.blockBuffers[i + step]);
+            }
+        }
+        buffer.add(this.blockBuffers[0]);
+        this.rememberSourceCosts();
     }
 
-    private static final class Accumulator {
+    @Override
+    public void close() {
+        this.closed = true;
+        for (Worker worker : this.workers) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    public int getThreadCount() {
+        return this.workers.length;
+    }
+
+    private void restoreSourceCosts() {
+        if (this.sourceCosts.length < this.sources.length) {
+            this.sourceCosts = new long[Math.max(16, Integer.highestOneBit(this.sources.length - 1) << 1)];
+        }
+        if (this.sources == this.previousSources) { // Snapshots are immutable and only replaced when the sources change
+            System.arraycopy(this.previousSourceCosts, 0, this.sourceCosts, 0, this.sources.length);
+        } else {
+            final Map<Source, Long> knownCosts = new IdentityHashMap<>(this.previousSources.length);
+            for (int i = 0; i < this.previousSources.length; i++) {
+                knownCosts.put(this.previousSources[i], this.previousSourceCosts[i]);
+            }
+            for (int i = 0; i < this.sources.length; i++) {
+                this.sourceCosts[i] = knownCosts.getOrDefault(this.sources[i], DEFAULT_SOURCE_COST);
+            }
+        }
+    }
+
+    private void rememberSourceCosts() {
+        if (this.previousSourceCosts.length < this.sources.length) {
+            this.previousSourceCosts = new long[this.sourceCosts.length];
+        }
+        System.arraycopy(this.sourceCosts, 0, this.previousSourceCosts, 0, this.sources.length);
+        this.previousSources = this.sources;
+    }
+
+    private void prepareBlockBuffers(final AudioBuffer buffer, final int blockCount) {
+        if (this.blockBuffers.length < blockCount) {
+            this.blockBuffers = Arrays.copyOf(this.blockBuffers, blockCount);
+        }
+        for (int i = 0; i < blockCount; i++) {
+            final AudioBuffer blockBuffer = this.blockBuffers[i];
+            if (blockBuffer == null || !blockBuffer.format().equals(buffer.format()) || blockBuffer.sampleCount() != buffer.sampleCount()) {
+                this.blockBuffers[i] = buffer.createWorkBuffer();
+            } else {
+                blockBuffer.clear();
+            }
+        }
+    }
 
-        private final AudioBuffer finalBuffer;
-        private final AudioBuffer mix;
-        private final AudioBuffer scratch;
+    private void partition(final int blockCount, final int workerCount) {
+        long totalCost = 0;
+        for (int i = 0; i < this.sources.length; i++) {
+            totalCost += this.sourceCosts[i];
+        }
 
-        private Accumulator(final AudioBuffer finalBuffer) {
-            this.finalBuffer = finalBuffer;
-            this.mix = finalBuffer.createWorkBuffer();
-            this.scratch = finalBuffer.createWorkBuffer();
+        // Split the blocks into contiguous chunks of roughly equal cost
+        int block = 0;
+        long accumulatedCost = 0;
+        for (int i = 0; i < workerCount; i++) {
+            final Worker worker = this.workers[i];
+            final int remainingWorkers = workerCount - i - 1;
+            final long targetCost = totalCost * (i + 1) / workerCount;
+            worker.startBlock = block;
+            while (block < blockCount - remainingWorkers && (block == worker.startBlock || accumulatedCost < targetCost)) {
+                final int end = Math.min((block + 1) * BLOCK_SIZE, this.sources.length);
+                for (int j = block * BLOCK_SIZE; j < end; j++) {
+                    accumulatedCost += this.sourceCosts[j];
+                }
+                block++;
+            }
+            worker.endBlock = i == workerCount - 1 ? blockCount : block;
         }
+    }
+
+    private final class Worker implements Runnable {
+
+        private final AtomicLong round = new AtomicLong(); // Incremented by the render thread to start a round. CLOSED_ROUND once the worker thread exited.
+        private Thread thread;
+        private AudioBuffer scratch;
+        private int startBlock;
+        private int endBlock;
 
-        private void accept(final Source source) {
-            this.scratch.clear();
-            source.render(this.scratch);
-            this.mix.add(this.scratch);
+        private void mix(final AudioBuffer buffer) {
+            if (this.scratch == null || !this.scratch.format().equals(buffer.format()) || this.scratch.sampleCount() != buffer.sampleCount()) {
+                this.scratch = buffer.createWorkBuffer();
+            }
+            final Source[] sources = MultithreadedMixer.this.sources;
+            final long[] sourceCosts = MultithreadedMixer.this.sourceCosts;
+            final int sourceCount = sources.length;
+            final RenderProfiler profiler = MultithreadedMixer.this.activeProfiler;
+            final RenderProfiler previousProfiler = profiler != null ? profiler.bind() : null;
+            try {
+                long time = System.nanoTime();
+                for (int block = this.startBlock; block < this.endBlock; block++) {
+                    final AudioBuffer blockBuffer = MultithreadedMixer.this.blockBuffers[block];
+                    final int end = Math.min((block + 1) * BLOCK_SIZE, sourceCount);
+                    for (int i = block * BLOCK_SIZE; i < end; i++) {
+                        sources[i].renderAdditive(blockBuffer, this.scratch);
+                        final long endTime = System.nanoTime();
+                        sourceCosts[i] = Math.max(endTime - time, DEFAULT_SOURCE_COST);
+                        if (profiler != null) {
+                            profiler.recordSource(sources[i], endTime - time);
+                        }
+                        time = endTime;
+                    }
+                }
+            } finally {
+                if (profiler != null) {
+                    RenderProfiler.unbind(previousProfiler);
+                }
+            }
         }
 
-        private void combine(final Accumulator other) {
-            this.mix.add(other.mix);
+        // Worker threads park until the render thread starts a new round and exit once the mixer is closed
+        @Override
+        public void run() {
+            long round = 0;
+            while (true) {
+                final long nextRound = this.round.get();
+                if (nextRound != round) {
+                    round = nextRound;
+                    this.mixRound();
+                } else if (MultithreadedMixer.this.closed) {
+                    if (this.round.compareAndSet(round, CLOSED_ROUND)) { // Otherwise a round was started concurrently and has to be mixed first
+                        return;
+                    }
+                } else {
+                    LockSupport.park(this);
+                }
+            }
         }
 
-        private void finish() {
-            this.finalBuffer.add(this.mix);
+        private void mixRound() {
+            try {
+                this.mix(MultithreadedMixer.this.blockBuffers[0]);
+            } catch (final Throwable e) {
+                MultithreadedMixer.this.workerError = e;
+            } finally {
+                if (MultithreadedMixer.this.pendingWorkers.decrementAndGet() == 0) {
+                    LockSupport.unpark(MultithreadedMixer.this.renderThread);
+                }
+            }
         }
 
     }
@@ -18,8 +18,10 @@
 package net.raphimc.audiomixer.processor;
 
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.profiling.RenderProfiler;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -40,7 +42,64 @@ public class Processors extends Processor implements List<Processor> {
     @Override
     public void processInternal(final AudioBuffer buffer) {
         if (!this.isEmpty()) {
-            this.forEach(processor -> processor.process(buffer));
+            final RenderProfiler profiler = RenderProfiler.current();
+            synchronized (this.processors) {
+                if (profiler == null) {
+                    for (int i = 0; i < this.processors.size(); i++) {
+                        this.processors.get(i).process(buffer);
+                    }
+                } else {
+                    for (int i = 0; i < this.processors.size(); i++) {
+                        final Processor processor = this.processors.get(i);
+                        final long startTime = System.nanoTime();
+                        processor.process(buffer);
+                        profiler.recordProcessor(processor, System.nanoTime() - startTime);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes the buffer like {@link #process(AudioBuffer)}, unless all enabled processors are {@link FoldableGainProcessor}s. In that case only the automations
+     * are processed and the gains of the processors are multiplied into the channel gains instead of being applied to the buffer.<br>
+     * The foldability check and the fold see the same processors, because both happen while holding the lock of the processor list.
+     *
+     * @return true if the channel gains still have to be applied, false if the buffer has been processed
+     */
+    public boolean processFolded(final AudioBuffer buffer, final float[] channelGains) {
+        final int channels = buffer.format().channels();
+        if (!this.isEnabled() || channels > channelGains.length) {
+            this.process(buffer);
+            return false;
+        }
+
+        synchronized (this.processors) {
+            for (int i = 0; i < this.processors.size(); i++) {
+                final Processor processor = this.processors.get(i);
+                if (processor.isEnabled() && !(processor instanceof FoldableGainProcessor foldableProcessor && foldableProcessor.isFoldableGain(channels))) {
+                    this.process(buffer);
+                    return false;
+                }
+            }
+
+            Arrays.fill(channelGains, 0, channels, 1F);
+            this.automations().process(buffer);
+            final RenderProfiler profiler = RenderProfiler.current();
+            for (int i = 0; i < this.processors.size(); i++) {
+                final Processor processor = this.processors.get(i);
+                if (processor.isEnabled() && processor instanceof FoldableGainProcessor foldableProcessor) { // A processor which was enabled after the check takes effect in the next slice
+                    final long startTime = profiler != null ? System.nanoTime() : 0L;
+                    processor.automations().process(buffer);
+                    for (int channel = 0; channel < channels; channel++) {
+                        channelGains[channel] *= foldableProcessor.getFoldedGain(channel);
+                    }
+                    if (profiler != null) { // Folded processors are recorded too, so the timings list every processor which ran
+                        profiler.recordProcessor(processor, System.nanoTime() - startTime);
+                    }
+                }
+            }
+            return true;
         }
     }
 
@@ -18,11 +18,11 @@
 package net.raphimc.audiomixer.processor.dynamics;
 
 import net.raphimc.audiomixer.parameter.FloatParameter;
-import net.raphimc.audiomixer.processor.Processor;
+import net.raphimc.audiomixer.processor.FoldableGainProcessor;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
 import net.raphimc.audiomixer.util.math.MathUtil;
 
-public class GainProcessor extends Processor {
+public class GainProcessor extends FoldableGainProcessor {
 
     private final FloatParameter gain = FloatParameter.of(1F).withConstraint(FloatParameter.Constraint.POSITIVE);
     private final FloatParameter gainDb = this.gain.withMapping(MathUtil::gainToDb, MathUtil::dbToGain);
@@ -39,6 +39,16 @@ public class GainProcessor extends Processor {
         buffer.multiply(this.gain.get());
     }
 
+    @Override
+    public boolean isFoldableGain(final int channels) {
+        return true;
+    }
+
+    @Override
+    public float getFoldedGain(final int channel) {
+        return this.gain.get();
+    }
+
     public FloatParameter gain() {
         return this.gain;
     }
@@ -22,14 +22,14 @@ import net.raphimc.audiomixer.processor.Processor;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
 import net.raphimc.audiomixer.util.math.MathUtil;
 
-import java.util.ArrayDeque;
-
 public class LimiterProcessor extends Processor {
 
     private final FloatParameter attackMillis = FloatParameter.of(1F).withConstraint(FloatParameter.Constraint.GREATER_THAN_ZERO);
     private final FloatParameter releaseMillis = FloatParameter.of(100F).withConstraint(FloatParameter.Constraint.GREATER_THAN_ZERO);
     private final FloatParameter lookaheadMillis = FloatParameter.of(5F).withConstraint(FloatParameter.Constraint.GREATER_THAN_ZERO);
 
+    private final LookaheadPeakWindow lookaheadPeakWindow = new LookaheadPeakWindow();
+    private float[] framePeaks = new float[0];
     private float currentGain = 1F;
 
     public LimiterProcessor() {
@@ -49,15 +49,22 @@ public class LimiterProcessor extends Processor {
         final int lookaheadFrameCount = buffer.format().millisToFrameCount(this.lookaheadMillis.get());
         final int channels = buffer.format().channels();
         final float[] samples = buffer.samples();
+        final int frameCount = buffer.frameCount();
 
-        final float[] framePeaks = new float[buffer.frameCount()];
-        for (int frame = 0; frame < framePeaks.length; frame++) {
+        if (this.framePeaks.length < frameCount) {
+            this.framePeaks = new float[frameCount];
+        }
+        final float[] framePeaks = this.framePeaks;
+        for (int frame = 0; frame < frameCount; frame++) {
+            float framePeak = 0F;
             for (int channel = 0; channel < channels; channel++) {
-                framePeaks[frame] = Math.max(Math.abs(samples[frame * channels + channel]), framePeaks[frame]);
+                framePeak = Math.max(Math.abs(samples[frame * channels + channel]), framePeak);
             }
+            framePeaks[frame] = framePeak;
         }
-        final LookaheadPeakWindow window = new LookaheadPeakWindow(framePeaks, lookaheadFrameCount);
-        for (int frame = 0; frame < framePeaks.length; frame++) {
+        final LookaheadPeakWindow window = this.lookaheadPeakWindow;
+        window.reset(framePeaks, frameCount, lookaheadFrameCount);
+        for (int frame = 0; frame < frameCount; frame++) {
             final float peakAhead = window.getMax(frame);
             final float targetGain = peakAhead > 1F ? 1F / peakAhead : 1F;
             final float coefficient = targetGain < this.currentGain ? attackCoefficient : releaseCoefficient;
@@ -94,29 +101,39 @@ public class LimiterProcessor extends Processor {
 
     private static final class LookaheadPeakWindow {
 
-        private final float[] framePeaks;
-        private final int lookaheadFrameCount;
-        private final ArrayDeque<Integer> maxIndices = new ArrayDeque<>();
-        private int expandedUntil = -1;
+        private float[] framePeaks;
+        private int frameCount;
+        private int lookaheadFrameCount;
+        private int[] maxIndices = new int[0]; // Monotonic deque. Every index is added at most once, so it never has to wrap around.
+        private int head;
+        private int tail;
+        private int expandedUntil;
 
-        private LookaheadPeakWindow(final float[] framePeaks, final int lookaheadFrameCount) {
+        private void reset(final float[] framePeaks, final int frameCount, final int lookaheadFrameCount) {
             this.framePeaks = framePeaks;
+            this.frameCount = frameCount;
             this.lookaheadFrameCount = lookaheadFrameCount;
+            if (this.maxIndices.length < frameCount) {
+                this.maxIndices = new int[frameCount];
+            }
+            this.head = 0;
+            this.tail = 0;
+            this.expandedUntil = -1;
         }
 
         private float getMax(final int frameIndex) {
-            final int windowEnd = Math.min(frameIndex + this.lookaheadFrameCount, this.framePeaks.length - 1);
+            final int windowEnd = Math.min(frameIndex + this.lookaheadFrameCount, this.frameCount - 1);
             while (this.expandedUntil < windowEnd) { // Expand window to the right
                 this.expandedUntil++;
-                while (!this.maxIndices.isEmpty() && this.framePeaks[this.maxIndices.peekLast()] <= this.framePeaks[this.expandedUntil]) { // Maintain decreasing order (max at front)
-                    this.maxIndices.removeLast();
+                while (this.tail > this.head && this.framePeaks[this.maxIndices[this.tail - 1]] <= this.framePeaks[this.expandedUntil]) { // Maintain decreasing order (max at front)
+                    this.tail--;
                 }
-                this.maxIndices.addLast(this.expandedUntil);
+                this.maxIndices[this.tail++] = this.expandedUntil;
             }
-            while (!this.maxIndices.isEmpty() && this.maxIndices.peekFirst() < frameIndex) { // Remove elements outside the left side of the window
-                this.maxIndices.removeFirst();
+            while (this.tail > this.head && this.maxIndices[this.head] < frameIndex) { // Remove elements outside the left side of the window
+                this.head++;
             }
-            return this.maxIndices.isEmpty() ? 0F : this.framePeaks[this.maxIndices.peekFirst()];
+            return this.tail > this.head ? this.framePeaks[this.maxIndices[this.head]] : 0F;
         }
 
     }
@@ -18,11 +18,12 @@
 package net.raphimc.audiomixer.processor.dynamics;
 
 import net.raphimc.audiomixer.parameter.FloatParameter;
-import net.raphimc.audiomixer.processor.Processor;
+import net.raphimc.audiomixer.processor.FoldableGainProcessor;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.buffer.SampleKernels;
 import net.raphimc.audiomixer.util.math.MathUtil;
 
-public class StereoGainProcessor extends Processor {
+public class StereoGainProcessor extends FoldableGainProcessor {
 
     private final FloatParameter leftGain = FloatParameter.of(1F).withConstraint(FloatParameter.Constraint.POSITIVE);
     private final FloatParameter leftGainDb = this.leftGain.withMapping(MathUtil::gainToDb, MathUtil::dbToGain);
@@ -42,13 +43,17 @@ public class StereoGainProcessor extends Processor {
         if (buffer.format().channels() != 2) {
             throw new IllegalArgumentException("Target audio format must have 2 channels");
         }
-        final float leftGain = this.leftGain.get();
-        final float rightGain = this.rightGain.get();
-        final float[] samples = buffer.samples();
-        for (int sampleIndex = 0; sampleIndex < samples.length; sampleIndex += 2) {
-            samples[sampleIndex] *= leftGain;
-            samples[sampleIndex + 1] *= rightGain;
-        }
+        SampleKernels.INSTANCE.multiplyStereo(buffer.samples(), buffer.sampleCount(), this.leftGain.get(), this.rightGain.get());
+    }
+
+    @Override
+    public boolean isFoldableGain(final int channels) {
+        return channels == 2;
+    }
+
+    @Override
+    public float getFoldedGain(final int channel) {
+        return channel == 0 ? this.leftGain.get() : this.rightGain.get();
     }
 
     public FloatParameter leftGain() {
@@ -18,11 +18,11 @@
 package net.raphimc.audiomixer.processor.spatial;
 
 import net.raphimc.audiomixer.parameter.FloatParameter;
-import net.raphimc.audiomixer.processor.Processor;
+import net.raphimc.audiomixer.processor.FoldableGainProcessor;
 import net.raphimc.audiomixer.processor.dynamics.StereoGainProcessor;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
 
-public class BalanceProcessor extends Processor {
+public class BalanceProcessor extends FoldableGainProcessor {
 
     private final StereoGainProcessor internalProcessor = new StereoGainProcessor();
     private final FloatParameter balance = FloatParameter.of(0F).withConstraint(FloatParameter.Constraint.SIGNED_NORMALIZED).withChangeListener(this::applyBalance);
@@ -41,6 +41,16 @@ public class BalanceProcessor extends Processor {
         this.internalProcessor.process(buffer);
     }
 
+    @Override
+    public boolean isFoldableGain(final int channels) {
+        return this.internalProcessor.isFoldableGain(channels);
+    }
+
+    @Override
+    public float getFoldedGain(final int channel) {
+        return this.internalProcessor.getFoldedGain(channel);
+    }
+
     public FloatParameter balance() {
         return this.balance;
     }
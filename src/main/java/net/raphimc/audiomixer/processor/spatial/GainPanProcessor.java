@@ -18,12 +18,12 @@
 package net.raphimc.audiomixer.processor.spatial;
 
 import net.raphimc.audiomixer.parameter.FloatParameter;
-import net.raphimc.audiomixer.processor.Processor;
+import net.raphimc.audiomixer.processor.FoldableGainProcessor;
 import net.raphimc.audiomixer.processor.dynamics.StereoGainProcessor;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
 import net.raphimc.audiomixer.util.math.MathUtil;
 
-public class GainPanProcessor extends Processor {
+public class GainPanProcessor extends FoldableGainProcessor {
 
     private final StereoGainProcessor internalProcessor = new StereoGainProcessor();
     private final FloatParameter gain = FloatParameter.of(1F).withConstraint(FloatParameter.Constraint.POSITIVE).withChangeListener(this::applyParameters);
@@ -45,6 +45,16 @@ public class GainPanProcessor extends Processor {
         this.internalProcessor.process(buffer);
     }
 
+    @Override
+    public boolean isFoldableGain(final int channels) {
+        return this.internalProcessor.isFoldableGain(channels);
+    }
+
+    @Override
+    public float getFoldedGain(final int channel) {
+        return this.internalProcessor.getFoldedGain(channel);
+    }
+
     public FloatParameter gain() {
         return this.gain;
     }
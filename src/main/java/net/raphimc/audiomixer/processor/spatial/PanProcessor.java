@@ -18,12 +18,12 @@
 package net.raphimc.audiomixer.processor.spatial;
 
 import net.raphimc.audiomixer.parameter.FloatParameter;
-import net.raphimc.audiomixer.processor.Processor;
+import net.raphimc.audiomixer.processor.FoldableGainProcessor;
 import net.raphimc.audiomixer.processor.dynamics.StereoGainProcessor;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
 import net.raphimc.audiomixer.util.math.MathUtil;
 
-public class PanProcessor extends Processor {
+public class PanProcessor extends FoldableGainProcessor {
 
     private final StereoGainProcessor internalProcessor = new StereoGainProcessor();
     private final FloatParameter pan = FloatParameter.of(0F).withConstraint(FloatParameter.Constraint.SIGNED_NORMALIZED).withChangeListener(this::applyPan);
@@ -42,6 +42,16 @@ public class PanProcessor extends Processor {
         this.internalProcessor.process(buffer);
     }
 
+    @Override
+    public boolean isFoldableGain(final int channels) {
+        return this.internalProcessor.isFoldableGain(channels);
+    }
+
+    @Override
+    public float getFoldedGain(final int channel) {
+        return this.internalProcessor.getFoldedGain(channel);
+    }
+
     public FloatParameter pan() {
         return this.pan;
     }
@@ -19,11 +19,11 @@ package net.raphimc.audiomixer.processor.spatial;
 
 import net.raphimc.audiomixer.parameter.FloatParameter;
 import net.raphimc.audiomixer.parameter.GenericParameter;
-import net.raphimc.audiomixer.processor.Processor;
+import net.raphimc.audiomixer.processor.FoldableGainProcessor;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
 import net.raphimc.audiomixer.util.math.Vector3f;
 
-public class PositionalAudioProcessor extends Processor {
+public class PositionalAudioProcessor extends FoldableGainProcessor {
 
     private final GainPanProcessor internalProcessor = new GainPanProcessor();
     private final FloatParameter maxDistance = FloatParameter.of(0F).withConstraint(FloatParameter.Constraint.GREATER_THAN_ZERO).withChangeListener(this::applyParameters);
@@ -40,6 +40,16 @@ public class PositionalAudioProcessor extends Processor {
         this.internalProcessor.process(buffer);
     }
 
+    @Override
+    public boolean isFoldableGain(final int channels) {
+        return this.internalProcessor.isFoldableGain(channels);
+    }
+
+    @Override
+    public float getFoldedGain(final int channel) {
+        return this.internalProcessor.getFoldedGain(channel);
+    }
+
     public FloatParameter maxDistance() {
         return this.maxDistance;
     }
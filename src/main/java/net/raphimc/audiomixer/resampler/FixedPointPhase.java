@@ -0,0 +1,120 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.resampler;
+
+// 32.32 fixed point source positions. The upper 32 bits are the frame index and the lower 32 bits the position between two frames.
+// Stepping by a fixed point increment is exact, so positions don't drift no matter how many frames are resampled.
+public final class FixedPointPhase {
+
+    public static final int FRACTION_BITS = 32;
+    public static final long ONE = 1L << FRACTION_BITS;
+    public static final long FRACTION_MASK = ONE - 1;
+    private static final float FRACTION_SCALE = 1F / (1 << 24);
+    private static final double LATTICE_TOLERANCE = 1E-6;
+
+    private FixedPointPhase() {
+    }
+
+    public static long fromPosition(final double position) {
+        return Math.round(position * ONE);
+    }
+
+    public static long fromPitch(final float pitch) {
+        return Math.round((double) pitch * ONE); // Exact for all pitches >= 2^-8
+    }
+
+    public static long fromIndex(final int index) {
+        return (long) index << FRACTION_BITS;
+    }
+
+    public static float toPitch(final long phaseIncrement) {
+        return (float) ((double) phaseIncrement / ONE);
+    }
+
+    public static double toPosition(final long phase) {
+        return (double) phase / ONE;
+    }
+
+    public static int index(final long phase) {
+        return (int) (phase >> FRACTION_BITS);
+    }
+
+    public static boolean isIntegral(final long phase) {
+        return (phase & FRACTION_MASK) == 0;
+    }
+
+    // Only the upper 24 fraction bits are used, so the result is always < 1
+    public static float fraction(final long phase) {
+        return ((int) phase >>> 8) * FRACTION_SCALE;
+    }
+
+    /**
+     * Finds the smallest denominator q for which the increment is a ratio p / q (Within float precision), like 147 / 160 for 44.1 kHz to 48 kHz.<br>
+     * Resamplers can then precompute their weights for the q fractions which occur.
+     *
+     * @return The denominator or 0 if there is none <= maxDenominator
+     */
+    public static int findDenominator(final long phaseIncrement, final int maxDenominator) {
+        final double value = (double) phaseIncrement / ONE;
+        final double tolerance = value * 0x1P-23 + 0x1P-31; // Pitches are floats
+        double remainder = value;
+        long previousDenominator = 0;
+        long denominator = 1;
+        for (int i = 0; i < 32; i++) { // Continued fraction expansion
+            final long term = (long) Math.floor(remainder);
+            if (i > 0) {
+                final long nextDenominator = term * denominator + previousDenominator;
+                previousDenominator = denominator;
+                denominator = nextDenominator;
+            }
+            if (denominator > maxDenominator) {
+                return 0;
+            }
+            if (Math.abs(value - Math.rint(value * denominator) / denominator) <= tolerance) {
+                return (int) denominator;
+            }
+            final double fraction = remainder - term;
+            if (fraction == 0) {
+                return 0;
+            }
+            remainder = 1D / fraction;
+        }
+        return 0;
+    }
+
+    /**
+     * @return The increment in units of 1 / denominator
+     */
+    public static long toNumerator(final long phaseIncrement, final int denominator) {
+        return Math.round((double) phaseIncrement * denominator / ONE);
+    }
+
+    /**
+     * @return The fraction of the phase in units of 1 / denominator or -1 if it doesn't lie on a multiple of 1 / denominator
+     */
+    public static int latticeNumerator(final long phase, final int denominator) {
+        final double numerator = (double) (phase & FRACTION_MASK) * denominator / ONE;
+        final long rounded = Math.round(numerator);
+        return Math.abs(numerator - rounded) <= LATTICE_TOLERANCE ? (int) rounded : -1;
+    }
+
+    public static long fromRational(final int index, final int numerator, final int denominator) {
+        return fromIndex(index) + Math.round((double) numerator * ONE / denominator);
+    }
+
+}
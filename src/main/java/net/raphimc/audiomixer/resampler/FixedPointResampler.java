@@ -0,0 +1,58 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.resampler;
+
+/**
+ * Base class for resamplers which work on 32.32 fixed point positions (See {@link FixedPointPhase}).<br>
+ * The double kernels convert the pitch and position once and delegate to the fixed point kernels.
+ */
+public abstract class FixedPointResampler implements Resampler {
+
+    @Override
+    public double resampleMonoToMono(final float[] src, final float[] dst, final float pitch, final double srcPosition) {
+        return FixedPointPhase.toPosition(this.resampleMonoToMonoFixed(src, dst, FixedPointPhase.fromPitch(pitch), FixedPointPhase.fromPosition(srcPosition)));
+    }
+
+    @Override
+    public double resampleStereoToStereo(final float[] src, final float[] dst, final float pitch, final double srcPosition) {
+        return FixedPointPhase.toPosition(this.resampleStereoToStereoFixed(src, dst, FixedPointPhase.fromPitch(pitch), FixedPointPhase.fromPosition(srcPosition)));
+    }
+
+    @Override
+    public double resampleMonoToStereo(final float[] src, final float[] dst, final float pitch, final double srcPosition) {
+        return FixedPointPhase.toPosition(this.resampleMonoToStereoFixed(src, dst, FixedPointPhase.fromPitch(pitch), FixedPointPhase.fromPosition(srcPosition)));
+    }
+
+    @Override
+    public double resampleStereoToMono(final float[] src, final float[] dst, final float pitch, final double srcPosition) {
+        return FixedPointPhase.toPosition(this.resampleStereoToMonoFixed(src, dst, FixedPointPhase.fromPitch(pitch), FixedPointPhase.fromPosition(srcPosition)));
+    }
+
+    @Override
+    public abstract long resampleMonoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase);
+
+    @Override
+    public abstract long resampleStereoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase);
+
+    @Override
+    public abstract long resampleMonoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase);
+
+    @Override
+    public abstract long resampleStereoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase);
+
+}
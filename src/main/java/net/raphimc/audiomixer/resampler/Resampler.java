@@ -34,31 +34,49 @@ public interface Resampler {
     }
 
     default double resample(final AudioBuffer src, final AudioBuffer dst, final double srcPosition) {
-        return this.resample(src.samples(), src.format(), dst.samples(), dst.format(), srcPosition);
+        return FixedPointPhase.toPosition(this.resampleFixed(src, dst, FixedPointPhase.fromPosition(srcPosition)));
+    }
+
+    default long resampleFixed(final AudioBuffer src, final AudioBuffer dst, final long srcPhase) {
+        return this.resampleFixed(src.samples(), src.format(), dst.samples(), dst.format(), srcPhase);
     }
 
     default double resample(final float[] src, final AudioFormat srcFormat, final float[] dst, final AudioFormat dstFormat, final double srcPosition) {
-        if (!srcFormat.equals(dstFormat) || srcPosition % 1 != 0) {
-            final float pitch = srcFormat.sampleRate() / dstFormat.sampleRate();
-            if (srcFormat.channels() == 1 && dstFormat.channels() == 1) {
-                return this.resampleMonoToMono(src, dst, pitch, srcPosition);
-            } else if (srcFormat.channels() == 2 && dstFormat.channels() == 2) {
-                return this.resampleStereoToStereo(src, dst, pitch, srcPosition);
-            } else if (srcFormat.channels() == 1 && dstFormat.channels() == 2) {
-                return this.resampleMonoToStereo(src, dst, pitch, srcPosition);
-            } else if (srcFormat.channels() == 2 && dstFormat.channels() == 1) {
-                return this.resampleStereoToMono(src, dst, pitch, srcPosition);
-            } else {
-                throw new IllegalArgumentException("Unsupported channel configuration: " + srcFormat.channels() + " -> " + dstFormat.channels());
-            }
+        return FixedPointPhase.toPosition(this.resampleFixed(src, srcFormat, dst, dstFormat, FixedPointPhase.fromPosition(srcPosition)));
+    }
+
+    default long resampleFixed(final float[] src, final AudioFormat srcFormat, final float[] dst, final AudioFormat dstFormat, final long srcPhase) {
+        if (!srcFormat.equals(dstFormat) || (srcPhase & (FixedPointPhase.ONE - 1)) != 0) {
+            return this.resampleFixed(src, srcFormat.channels(), dst, dstFormat.channels(), FixedPointPhase.fromPitch(srcFormat.sampleRate() / dstFormat.sampleRate()), srcPhase);
         } else {
-            final int offset = (int) srcPosition * srcFormat.channels();
+            final int offset = FixedPointPhase.index(srcPhase) * srcFormat.channels();
             final int count = Math.min(dst.length, Math.max(src.length - offset, 0));
             System.arraycopy(src, offset, dst, 0, count);
-            return srcPosition + srcFormat.sampleCountToFrameCount(count);
+            return srcPhase + FixedPointPhase.fromIndex(srcFormat.sampleCountToFrameCount(count));
+        }
+    }
+
+    default long resampleFixed(final float[] src, final int srcChannels, final float[] dst, final int dstChannels, final long phaseIncrement, final long srcPhase) {
+        if (srcChannels == 1 && dstChannels == 1) {
+            return this.resampleMonoToMonoFixed(src, dst, phaseIncrement, srcPhase);
+        } else if (srcChannels == 2 && dstChannels == 2) {
+            return this.resampleStereoToStereoFixed(src, dst, phaseIncrement, srcPhase);
+        } else if (srcChannels == 1 && dstChannels == 2) {
+            return this.resampleMonoToStereoFixed(src, dst, phaseIncrement, srcPhase);
+        } else if (srcChannels == 2 && dstChannels == 1) {
+            return this.resampleStereoToMonoFixed(src, dst, phaseIncrement, srcPhase);
+        } else {
+            throw new IllegalArgumentException("Unsupported channel configuration: " + srcChannels + " -> " + dstChannels);
         }
     }
 
+    /**
+     * @return The number of source frames on each side of the current position which are used to compute an output frame
+     */
+    default int getFilterRadius(final float pitch) {
+        return 2;
+    }
+
     double resampleMonoToMono(final float[] src, final float[] dst, final float pitch, final double srcPosition);
 
     double resampleStereoToStereo(final float[] src, final float[] dst, final float pitch, final double srcPosition);
@@ -67,4 +85,23 @@ public interface Resampler {
 
     double resampleStereoToMono(final float[] src, final float[] dst, final float pitch, final double srcPosition);
 
+    // The kernels work on 32.32 fixed point positions (See FixedPointPhase) and return the source phase after the last resampled frame.
+    // They fall back to the double kernels above. The built-in resamplers override them.
+
+    default long resampleMonoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase) {
+        return FixedPointPhase.fromPosition(this.resampleMonoToMono(src, dst, FixedPointPhase.toPitch(phaseIncrement), FixedPointPhase.toPosition(srcPhase)));
+    }
+
+    default long resampleStereoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase) {
+        return FixedPointPhase.fromPosition(this.resampleStereoToStereo(src, dst, FixedPointPhase.toPitch(phaseIncrement), FixedPointPhase.toPosition(srcPhase)));
+    }
+
+    default long resampleMonoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase) {
+        return FixedPointPhase.fromPosition(this.resampleMonoToStereo(src, dst, FixedPointPhase.toPitch(phaseIncrement), FixedPointPhase.toPosition(srcPhase)));
+    }
+
+    default long resampleStereoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase) {
+        return FixedPointPhase.fromPosition(this.resampleStereoToMono(src, dst, FixedPointPhase.toPitch(phaseIncrement), FixedPointPhase.toPosition(srcPhase)));
+    }
+
 }
@@ -0,0 +1,141 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.resampler;
+
+import net.raphimc.audiomixer.util.buffer.storage.AudioStorage;
+
+import java.util.Arrays;
+
+/**
+ * Stateful wrapper around a {@link Resampler} which accepts input incrementally.<br>
+ * The written frames are buffered together with the frames before the read position which are still needed as filter taps (History),
+ * so the input can be written block by block (Or loop by loop) without copying margins and without reflecting samples at block edges.<br>
+ * Not thread safe.
+ */
+public class StreamingResampler {
+
+    private final Resampler resampler;
+    private final int channels;
+    private float[] samples = new float[0]; // Everything after the written frames is always silence, so missing input is read as silence
+    private int frameCount;
+    private long phase;
+
+    public StreamingResampler(final Resampler resampler, final int channels) {
+        if (channels <= 0) {
+            throw new IllegalArgumentException("Channels must be > 0");
+        }
+        this.resampler = resampler;
+        this.channels = channels;
+    }
+
+    /**
+     * @return The number of frames which have to be written before {@link #read(float[], int, float)} can resample the given number of frames from real input
+     */
+    public int getRequiredFrameCount(final int dstFrameCount, final float pitch) {
+        final long endPhase = this.phase + dstFrameCount * FixedPointPhase.fromPitch(pitch);
+        return Math.max(FixedPointPhase.index(endPhase) + this.resampler.getFilterRadius(pitch) + 1 - this.frameCount, 0);
+    }
+
+    public void write(final float[] src, final int offset, final int frameCount) {
+        this.ensureCapacity(this.frameCount + frameCount);
+        System.arraycopy(src, offset, this.samples, this.frameCount * this.channels, frameCount * this.channels);
+        this.frameCount += frameCount;
+    }
+
+    public void write(final AudioStorage storage, final int frameIndex, final int frameCount) {
+        if (storage.format().channels() != this.channels) {
+            throw new IllegalArgumentException("Channel count mismatch: " + storage.format().channels() + " != " + this.channels);
+        }
+        this.ensureCapacity(this.frameCount + frameCount);
+        storage.read(frameIndex, this.samples, this.frameCount * this.channels, frameCount);
+        this.frameCount += frameCount;
+    }
+
+    /**
+     * Moves the read position forward without resampling. Can be used to place the read position after frames which were only written as history.
+     *
+     * @param phaseIncrement The number of frames in 32.32 fixed point (See {@link FixedPointPhase})
+     */
+    public void skip(final long phaseIncrement) {
+        this.phase += phaseIncrement;
+    }
+
+    /**
+     * Fills the destination array with resampled frames and drops the input which is no longer needed.
+     *
+     * @return The number of source frames the read position moved forward in 32.32 fixed point (It never moves past the written frames)
+     */
+    public long read(final float[] dst, final int dstChannels, final float pitch) {
+        if (this.phase >= FixedPointPhase.fromIndex(this.frameCount)) { // All input was consumed and its tail was already resampled by the previous read
+            Arrays.fill(dst, 0F);
+            return 0L;
+        }
+
+        final long phaseIncrement = FixedPointPhase.fromPitch(pitch);
+        final int radius = this.resampler.getFilterRadius(pitch);
+        final long endPhase = this.phase + (dst.length / dstChannels) * phaseIncrement;
+        this.ensureCapacity(FixedPointPhase.index(endPhase) + radius + 2); // The resamplers stop at the end of the array, so it must not end before the destination is full
+
+        final long startPhase = this.phase;
+        this.phase = Math.min(this.resampler.resampleFixed(this.samples, this.channels, dst, dstChannels, phaseIncrement, this.phase), FixedPointPhase.fromIndex(this.frameCount));
+        final long consumedPhase = this.phase - startPhase;
+
+        final int droppedFrameCount = Math.max(FixedPointPhase.index(this.phase) - radius, 0); // Keep the frames before the read position which are needed as history
+        if (droppedFrameCount > 0) {
+            final int sampleCount = this.frameCount * this.channels;
+            final int droppedSampleCount = droppedFrameCount * this.channels;
+            System.arraycopy(this.samples, droppedSampleCount, this.samples, 0, sampleCount - droppedSampleCount);
+            Arrays.fill(this.samples, sampleCount - droppedSampleCount, sampleCount, 0F);
+            this.frameCount -= droppedFrameCount;
+            this.phase -= FixedPointPhase.fromIndex(droppedFrameCount);
+        }
+        return consumedPhase;
+    }
+
+    /**
+     * Drops all written frames and the history. Has to be called when the input jumps (For example after seeking).
+     */
+    public void reset() {
+        Arrays.fill(this.samples, 0, this.frameCount * this.channels, 0F);
+        this.frameCount = 0;
+        this.phase = 0;
+    }
+
+    /**
+     * @return The number of written frames after the read position
+     */
+    public int getBufferedFrameCount() {
+        return Math.max(this.frameCount - FixedPointPhase.index(this.phase), 0);
+    }
+
+    public Resampler getResampler() {
+        return this.resampler;
+    }
+
+    public int getChannels() {
+        return this.channels;
+    }
+
+    private void ensureCapacity(final int frameCount) {
+        final int sampleCount = frameCount * this.channels;
+        if (this.samples.length < sampleCount) {
+            this.samples = Arrays.copyOf(this.samples, Math.max(sampleCount, this.samples.length << 1));
+        }
+    }
+
+}
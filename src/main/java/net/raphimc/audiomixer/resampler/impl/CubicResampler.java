@@ -17,24 +17,54 @@
  */
 package net.raphimc.audiomixer.resampler.impl;
 
-import net.raphimc.audiomixer.resampler.Resampler;
+import net.raphimc.audiomixer.resampler.FixedPointPhase;
+import net.raphimc.audiomixer.resampler.FixedPointResampler;
+
+import java.util.stream.IntStream;
 
 // Catmull-Rom cubic resampler
-public final class CubicResampler implements Resampler {
+public final class CubicResampler extends FixedPointResampler {
+
+    private static final int MAX_DENOMINATOR = 160;
+    private static final int[] RATIONAL_DENOMINATORS = IntStream.concat(IntStream.rangeClosed(1, 16), IntStream.of(MAX_DENOMINATOR)).toArray(); // Integer interpolation, small ratios and 44.1 kHz to 48 kHz (147 / 160)
 
     public static final CubicResampler INSTANCE = new CubicResampler();
 
+    private final float[][] weightTables = new float[MAX_DENOMINATOR + 1][]; // Indexed by denominator. Other pitches compute their weights per frame.
+
     private CubicResampler() {
+        for (final int denominator : RATIONAL_DENOMINATORS) {
+            final float[] weights = new float[denominator * 4];
+            for (int i = 0; i < denominator; i++) {
+                final float f = (float) i / denominator;
+                weights[i * 4] = weight0(f);
+                weights[i * 4 + 1] = weight1(f);
+                weights[i * 4 + 2] = weight2(f);
+                weights[i * 4 + 3] = weight3(f);
+            }
+            this.weightTables[denominator] = weights;
+        }
     }
 
     @Override
-    public double resampleMonoToMono(final float[] src, final float[] dst, final float pitch, double srcPosition) {
+    public long resampleMonoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        if (FixedPointPhase.isIntegral(phaseIncrement)) { // Unity pitch and integer decimation: The fraction stays the same for every frame
+            return this.resampleMonoToMonoConstantFraction(src, dst, phaseIncrement, srcPhase);
+        }
+        final int denominator = FixedPointPhase.findDenominator(phaseIncrement, MAX_DENOMINATOR);
+        if (this.weightTables[denominator] != null) { // Integer interpolation and rational ratios: The fraction cycles through a few values
+            final int numerator = FixedPointPhase.latticeNumerator(srcPhase, denominator);
+            if (numerator != -1) {
+                return this.resampleMonoToMonoRational(src, dst, phaseIncrement, srcPhase, denominator, numerator);
+            }
+        }
         final int srcLastIndex = src.length - 1;
-        for (int dstPosition = 0; dstPosition < dst.length && srcPosition < src.length; dstPosition++) {
-            final float f = (float) (srcPosition - (int) srcPosition);
+        final long srcEndPhase = FixedPointPhase.fromIndex(src.length);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition++) {
+            final float f = FixedPointPhase.fraction(srcPhase);
             final float f2 = f * f;
             final float f3 = f2 * f;
-            final int i1 = (int) srcPosition;
+            final int i1 = FixedPointPhase.index(srcPhase);
             final int i0 = reflectIfNeeded(i1 - 1, srcLastIndex);
             final int i2 = reflectIfNeeded(i1 + 1, srcLastIndex);
             final int i3 = reflectIfNeeded(i1 + 2, srcLastIndex);
@@ -47,20 +77,30 @@ public final class CubicResampler implements Resampler {
             final float c2 = (2F * s0 - 5F * s1 + 4F * s2 - s3) * f2;
             final float c3 = (-s0 + 3F * s1 - 3F * s2 + s3) * f3;
             dst[dstPosition] = 0.5F * (c0 + c1 + c2 + c3);
-            srcPosition += pitch;
+            srcPhase += phaseIncrement;
         }
-        return srcPosition;
+        return srcPhase;
     }
 
     @Override
-    public double resampleStereoToStereo(final float[] src, final float[] dst, final float pitch, double srcPosition) {
-        final int srcFrameLength = src.length / 2;
+    public long resampleStereoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        if (FixedPointPhase.isIntegral(phaseIncrement)) { // Unity pitch and integer decimation: The fraction stays the same for every frame
+            return this.resampleStereoToStereoConstantFraction(src, dst, phaseIncrement, srcPhase);
+        }
+        final int denominator = FixedPointPhase.findDenominator(phaseIncrement, MAX_DENOMINATOR);
+        if (this.weightTables[denominator] != null) { // Integer interpolation and rational ratios: The fraction cycles through a few values
+            final int numerator = FixedPointPhase.latticeNumerator(srcPhase, denominator);
+            if (numerator != -1) {
+                return this.resampleStereoToStereoRational(src, dst, phaseIncrement, srcPhase, denominator, numerator);
+            }
+        }
+        final long srcEndPhase = FixedPointPhase.fromIndex(src.length / 2);
         final int srcLastIndex = src.length - 2;
-        for (int dstPosition = 0; dstPosition < dst.length && srcPosition < srcFrameLength; dstPosition += 2) {
-            final float f = (float) (srcPosition - (int) srcPosition);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition += 2) {
+            final float f = FixedPointPhase.fraction(srcPhase);
             final float f2 = f * f;
             final float f3 = f2 * f;
-            final int i1 = (int) srcPosition * 2;
+            final int i1 = FixedPointPhase.index(srcPhase) * 2;
             final int i0 = reflectIfNeeded(i1 - 2, srcLastIndex);
             final int i2 = reflectIfNeeded(i1 + 2, srcLastIndex);
             final int i3 = reflectIfNeeded(i1 + 4, srcLastIndex);
@@ -86,19 +126,20 @@ public final class CubicResampler implements Resampler {
                 final float c3 = (-s0 + 3F * s1 - 3F * s2 + s3) * f3;
                 dst[dstPosition + 1] = 0.5F * (c0 + c1 + c2 + c3);
             }
-            srcPosition += pitch;
+            srcPhase += phaseIncrement;
         }
-        return srcPosition;
+        return srcPhase;
     }
 
     @Override
-    public double resampleMonoToStereo(final float[] src, final float[] dst, final float pitch, double srcPosition) {
+    public long resampleMonoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
         final int srcLastIndex = src.length - 1;
-        for (int dstPosition = 0; dstPosition < dst.length && srcPosition < src.length; dstPosition += 2) {
-            final float f = (float) (srcPosition - (int) srcPosition);
+        final long srcEndPhase = FixedPointPhase.fromIndex(src.length);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition += 2) {
+            final float f = FixedPointPhase.fraction(srcPhase);
             final float f2 = f * f;
             final float f3 = f2 * f;
-            final int i1 = (int) srcPosition;
+            final int i1 = FixedPointPhase.index(srcPhase);
             final int i0 = reflectIfNeeded(i1 - 1, srcLastIndex);
             final int i2 = reflectIfNeeded(i1 + 1, srcLastIndex);
             final int i3 = reflectIfNeeded(i1 + 2, srcLastIndex);
@@ -111,20 +152,20 @@ public final class CubicResampler implements Resampler {
             final float c2 = (2F * s0 - 5F * s1 + 4F * s2 - s3) * f2;
             final float c3 = (-s0 + 3F * s1 - 3F * s2 + s3) * f3;
             dst[dstPosition] = dst[dstPosition + 1] = 0.5F * (c0 + c1 + c2 + c3);
-            srcPosition += pitch;
+            srcPhase += phaseIncrement;
         }
-        return srcPosition;
+        return srcPhase;
     }
 
     @Override
-    public double resampleStereoToMono(final float[] src, final float[] dst, final float pitch, double srcPosition) {
-        final int srcFrameLength = src.length / 2;
+    public long resampleStereoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        final long srcEndPhase = FixedPointPhase.fromIndex(src.length / 2);
         final int srcLastIndex = src.length - 2;
-        for (int dstPosition = 0; dstPosition < dst.length && srcPosition < srcFrameLength; dstPosition++) {
-            final float f = (float) (srcPosition - (int) srcPosition);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition++) {
+            final float f = FixedPointPhase.fraction(srcPhase);
             final float f2 = f * f;
             final float f3 = f2 * f;
-            final int i1 = (int) srcPosition * 2;
+            final int i1 = FixedPointPhase.index(srcPhase) * 2;
             final int i0 = reflectIfNeeded(i1 - 2, srcLastIndex);
             final int i2 = reflectIfNeeded(i1 + 2, srcLastIndex);
             final int i3 = reflectIfNeeded(i1 + 4, srcLastIndex);
@@ -137,9 +178,134 @@ public final class CubicResampler implements Resampler {
             final float c2 = (2F * s0 - 5F * s1 + 4F * s2 - s3) * f2;
             final float c3 = (-s0 + 3F * s1 - 3F * s2 + s3) * f3;
             dst[dstPosition] = 0.5F * (c0 + c1 + c2 + c3);
-            srcPosition += pitch;
+            srcPhase += phaseIncrement;
+        }
+        return srcPhase;
+    }
+
+    private long resampleMonoToMonoConstantFraction(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase) {
+        final int srcLastIndex = src.length - 1;
+        final int indexIncrement = FixedPointPhase.index(phaseIncrement);
+        final float f = FixedPointPhase.fraction(srcPhase);
+        final float w0 = weight0(f);
+        final float w1 = weight1(f);
+        final float w2 = weight2(f);
+        final float w3 = weight3(f);
+        int i1 = FixedPointPhase.index(srcPhase);
+        int dstPosition = 0;
+        for (; dstPosition < dst.length && i1 < src.length; dstPosition++) {
+            final int i0 = reflectIfNeeded(i1 - 1, srcLastIndex);
+            final int i2 = reflectIfNeeded(i1 + 1, srcLastIndex);
+            final int i3 = reflectIfNeeded(i1 + 2, srcLastIndex);
+            dst[dstPosition] = w0 * src[i0] + w1 * src[i1] + w2 * src[i2] + w3 * src[i3];
+            i1 += indexIncrement;
+        }
+        return srcPhase + dstPosition * phaseIncrement;
+    }
+
+    private long resampleStereoToStereoConstantFraction(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase) {
+        final int srcFrameLength = src.length / 2;
+        final int srcLastIndex = src.length - 2;
+        final int indexIncrement = FixedPointPhase.index(phaseIncrement);
+        final float f = FixedPointPhase.fraction(srcPhase);
+        final float w0 = weight0(f);
+        final float w1 = weight1(f);
+        final float w2 = weight2(f);
+        final float w3 = weight3(f);
+        int frame = FixedPointPhase.index(srcPhase);
+        int dstPosition = 0;
+        for (; dstPosition < dst.length && frame < srcFrameLength; dstPosition += 2) {
+            final int i1 = frame * 2;
+            final int i0 = reflectIfNeeded(i1 - 2, srcLastIndex);
+            final int i2 = reflectIfNeeded(i1 + 2, srcLastIndex);
+            final int i3 = reflectIfNeeded(i1 + 4, srcLastIndex);
+            dst[dstPosition] = w0 * src[i0] + w1 * src[i1] + w2 * src[i2] + w3 * src[i3];
+            dst[dstPosition + 1] = w0 * src[i0 + 1] + w1 * src[i1 + 1] + w2 * src[i2 + 1] + w3 * src[i3 + 1];
+            frame += indexIncrement;
         }
-        return srcPosition;
+        return srcPhase + (dstPosition / 2) * phaseIncrement;
+    }
+
+    // The source position is index + numerator / denominator. The weights for every numerator are precomputed.
+    private long resampleMonoToMonoRational(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase, final int denominator, final int startNumerator) {
+        final float[] weights = this.weightTables[denominator];
+        final long numeratorIncrement = FixedPointPhase.toNumerator(phaseIncrement, denominator);
+        final int indexIncrement = (int) (numeratorIncrement / denominator);
+        final int fractionIncrement = (int) (numeratorIncrement % denominator);
+        final int srcLastIndex = src.length - 1;
+        int i1 = FixedPointPhase.index(srcPhase);
+        int numerator = startNumerator;
+        if (numerator == denominator) {
+            i1++;
+            numerator = 0;
+        }
+        for (int dstPosition = 0; dstPosition < dst.length && i1 < src.length; dstPosition++) {
+            final int i0 = reflectIfNeeded(i1 - 1, srcLastIndex);
+            final int i2 = reflectIfNeeded(i1 + 1, srcLastIndex);
+            final int i3 = reflectIfNeeded(i1 + 2, srcLastIndex);
+            final int w = numerator * 4;
+            dst[dstPosition] = weights[w] * src[i0] + weights[w + 1] * src[i1] + weights[w + 2] * src[i2] + weights[w + 3] * src[i3];
+            i1 += indexIncrement;
+            numerator += fractionIncrement;
+            if (numerator >= denominator) {
+                numerator -= denominator;
+                i1++;
+            }
+        }
+        return FixedPointPhase.fromRational(i1, numerator, denominator);
+    }
+
+    private long resampleStereoToStereoRational(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase, final int denominator, final int startNumerator) {
+        final float[] weights = this.weightTables[denominator];
+        final long numeratorIncrement = FixedPointPhase.toNumerator(phaseIncrement, denominator);
+        final int indexIncrement = (int) (numeratorIncrement / denominator);
+        final int fractionIncrement = (int) (numeratorIncrement % denominator);
+        final int srcFrameLength = src.length / 2;
+        final int srcLastIndex = src.length - 2;
+        int frame = FixedPointPhase.index(srcPhase);
+        int numerator = startNumerator;
+        if (numerator == denominator) {
+            frame++;
+            numerator = 0;
+        }
+        for (int dstPosition = 0; dstPosition < dst.length && frame < srcFrameLength; dstPosition += 2) {
+            final int i1 = frame * 2;
+            final int i0 = reflectIfNeeded(i1 - 2, srcLastIndex);
+            final int i2 = reflectIfNeeded(i1 + 2, srcLastIndex);
+            final int i3 = reflectIfNeeded(i1 + 4, srcLastIndex);
+            final int w = numerator * 4;
+            final float w0 = weights[w];
+            final float w1 = weights[w + 1];
+            final float w2 = weights[w + 2];
+            final float w3 = weights[w + 3];
+            dst[dstPosition] = w0 * src[i0] + w1 * src[i1] + w2 * src[i2] + w3 * src[i3];
+            dst[dstPosition + 1] = w0 * src[i0 + 1] + w1 * src[i1 + 1] + w2 * src[i2 + 1] + w3 * src[i3 + 1];
+            frame += indexIncrement;
+            numerator += fractionIncrement;
+            if (numerator >= denominator) {
+                numerator -= denominator;
+                frame++;
+            }
+        }
+        return FixedPointPhase.fromRational(frame, numerator, denominator);
+    }
+
+    // Catmull-Rom weights of the four taps (Expanded form of the interpolation in the general kernels)
+
+    private static float weight0(final float f) {
+        return 0.5F * ((-f + 2F * f * f) - f * f * f);
+    }
+
+    private static float weight1(final float f) {
+        return 0.5F * ((2F - 5F * f * f) + 3F * f * f * f);
+    }
+
+    private static float weight2(final float f) {
+        return 0.5F * ((f + 4F * f * f) - 3F * f * f * f);
+    }
+
+    private static float weight3(final float f) {
+        return 0.5F * (-f * f + f * f * f);
     }
 
     private static int reflectIfNeeded(int index, final int lastIndex) {
@@ -17,9 +17,10 @@
  */
 package net.raphimc.audiomixer.resampler.impl;
 
-import net.raphimc.audiomixer.resampler.Resampler;
+import net.raphimc.audiomixer.resampler.FixedPointPhase;
+import net.raphimc.audiomixer.resampler.FixedPointResampler;
 
-public final class LinearResampler implements Resampler {
+public final class LinearResampler extends FixedPointResampler {
 
     public static final LinearResampler INSTANCE = new LinearResampler();
 
@@ -27,27 +28,34 @@ public final class LinearResampler implements Resampler {
     }
 
     @Override
-    public double resampleMonoToMono(final float[] src, final float[] dst, final float pitch, double srcPosition) {
+    public long resampleMonoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        if (FixedPointPhase.isIntegral(phaseIncrement)) { // Unity pitch and integer decimation: The fraction stays the same for every frame
+            return this.resampleMonoToMonoConstantFraction(src, dst, phaseIncrement, srcPhase);
+        }
         final int srcLastIndex = src.length - 1;
-        for (int dstPosition = 0; dstPosition < dst.length && srcPosition < src.length; dstPosition++) {
-            final float f = (float) (srcPosition - (int) srcPosition);
-            final int i0 = (int) srcPosition;
+        final long srcEndPhase = FixedPointPhase.fromIndex(src.length);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition++) {
+            final float f = FixedPointPhase.fraction(srcPhase);
+            final int i0 = FixedPointPhase.index(srcPhase);
             final int i1 = Math.min(i0 + 1, srcLastIndex);
             final float s0 = src[i0];
             final float s1 = src[i1];
             dst[dstPosition] = s0 + (s1 - s0) * f;
-            srcPosition += pitch;
+            srcPhase += phaseIncrement;
         }
-        return srcPosition;
+        return srcPhase;
     }
 
     @Override
-    public double resampleStereoToStereo(final float[] src, final float[] dst, final float pitch, double srcPosition) {
-        final int srcFrameLength = src.length / 2;
+    public long resampleStereoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        if (FixedPointPhase.isIntegral(phaseIncrement)) { // Unity pitch and integer decimation: The fraction stays the same for every frame
+            return this.resampleStereoToStereoConstantFraction(src, dst, phaseIncrement, srcPhase);
+        }
+        final long srcEndPhase = FixedPointPhase.fromIndex(src.length / 2);
         final int srcLastIndex = src.length - 2;
-        for (int dstPosition = 0; dstPosition < dst.length && srcPosition < srcFrameLength; dstPosition += 2) {
-            final float f = (float) (srcPosition - (int) srcPosition);
-            final int i0 = (int) srcPosition * 2;
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition += 2) {
+            final float f = FixedPointPhase.fraction(srcPhase);
+            final int i0 = FixedPointPhase.index(srcPhase) * 2;
             final int i1 = Math.min(i0 + 2, srcLastIndex);
             {
                 final float s0 = src[i0];
@@ -59,40 +67,73 @@ public final class LinearResampler implements Resampler {
                 final float s1 = src[i1 + 1];
                 dst[dstPosition + 1] = s0 + (s1 - s0) * f;
             }
-            srcPosition += pitch;
+            srcPhase += phaseIncrement;
         }
-        return srcPosition;
+        return srcPhase;
     }
 
     @Override
-    public double resampleMonoToStereo(final float[] src, final float[] dst, final float pitch, double srcPosition) {
+    public long resampleMonoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
         final int srcLastIndex = src.length - 1;
-        for (int dstPosition = 0; dstPosition < dst.length && srcPosition < src.length; dstPosition += 2) {
-            final float f = (float) (srcPosition - (int) srcPosition);
-            final int i0 = (int) srcPosition;
+        final long srcEndPhase = FixedPointPhase.fromIndex(src.length);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition += 2) {
+            final float f = FixedPointPhase.fraction(srcPhase);
+            final int i0 = FixedPointPhase.index(srcPhase);
             final int i1 = Math.min(i0 + 1, srcLastIndex);
             final float s0 = src[i0];
             final float s1 = src[i1];
             dst[dstPosition] = dst[dstPosition + 1] = s0 + (s1 - s0) * f;
-            srcPosition += pitch;
+            srcPhase += phaseIncrement;
         }
-        return srcPosition;
+        return srcPhase;
     }
 
     @Override
-    public double resampleStereoToMono(final float[] src, final float[] dst, final float pitch, double srcPosition) {
-        final int srcFrameLength = src.length / 2;
+    public long resampleStereoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        final long srcEndPhase = FixedPointPhase.fromIndex(src.length / 2);
         final int srcLastIndex = src.length - 2;
-        for (int dstPosition = 0; dstPosition < dst.length && srcPosition < srcFrameLength; dstPosition++) {
-            final float f = (float) (srcPosition - (int) srcPosition);
-            final int i0 = (int) srcPosition * 2;
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition++) {
+            final float f = FixedPointPhase.fraction(srcPhase);
+            final int i0 = FixedPointPhase.index(srcPhase) * 2;
             final int i1 = Math.min(i0 + 2, srcLastIndex);
             final float s0 = (src[i0] + src[i0 + 1]) / 2F;
             final float s1 = (src[i1] + src[i1 + 1]) / 2F;
             dst[dstPosition] = s0 + (s1 - s0) * f;
-            srcPosition += pitch;
+            srcPhase += phaseIncrement;
+        }
+        return srcPhase;
+    }
+
+    private long resampleMonoToMonoConstantFraction(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase) {
+        final int srcLastIndex = src.length - 1;
+        final int indexIncrement = FixedPointPhase.index(phaseIncrement);
+        final float f = FixedPointPhase.fraction(srcPhase);
+        int i0 = FixedPointPhase.index(srcPhase);
+        int dstPosition = 0;
+        for (; dstPosition < dst.length && i0 < src.length; dstPosition++) {
+            final float s0 = src[i0];
+            final float s1 = src[Math.min(i0 + 1, srcLastIndex)];
+            dst[dstPosition] = s0 + (s1 - s0) * f;
+            i0 += indexIncrement;
+        }
+        return srcPhase + dstPosition * phaseIncrement;
+    }
+
+    private long resampleStereoToStereoConstantFraction(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase) {
+        final int srcFrameLength = src.length / 2;
+        final int srcLastIndex = src.length - 2;
+        final int indexIncrement = FixedPointPhase.index(phaseIncrement);
+        final float f = FixedPointPhase.fraction(srcPhase);
+        int frame = FixedPointPhase.index(srcPhase);
+        int dstPosition = 0;
+        for (; dstPosition < dst.length && frame < srcFrameLength; dstPosition += 2) {
+            final int i0 = frame * 2;
+            final int i1 = Math.min(i0 + 2, srcLastIndex);
+            dst[dstPosition] = src[i0] + (src[i1] - src[i0]) * f;
+            dst[dstPosition + 1] = src[i0 + 1] + (src[i1 + 1] - src[i0 + 1]) * f;
+            frame += indexIncrement;
         }
-        return srcPosition;
+        return srcPhase + (dstPosition / 2) * phaseIncrement;
     }
 
 }
@@ -0,0 +1,127 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.resampler.impl;
+
+import net.raphimc.audiomixer.resampler.FixedPointPhase;
+import net.raphimc.audiomixer.resampler.Resampler;
+import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.buffer.AudioBufferPyramid;
+
+/**
+ * Wraps another resampler and plays buffers at pitches of 2 and above from the matching level of their {@link AudioBufferPyramid}, so that the wrapped resampler
+ * always sees a pitch below 2 and doesn't skip over source frames.<br>
+ * Only whole buffers are mipmapped (Buffered audio sources backed by an {@link AudioBuffer} and format conversions). Windowed sources resample with the wrapped resampler.
+ */
+public final class MipmapResampler implements Resampler {
+
+    public static final MipmapResampler LINEAR = new MipmapResampler(LinearResampler.INSTANCE);
+    public static final MipmapResampler CUBIC = new MipmapResampler(CubicResampler.INSTANCE);
+
+    private final Resampler resampler;
+
+    public MipmapResampler(final Resampler resampler) {
+        this.resampler = resampler;
+    }
+
+    // Builds missing levels on the calling thread. Sources use the overload with a cached pyramid instead.
+    @Override
+    public long resampleFixed(final AudioBuffer src, final AudioBuffer dst, final long srcPhase) {
+        final int level = this.getLevel(src, dst);
+        if (level == 0) {
+            return this.resampler.resampleFixed(src, dst, srcPhase);
+        }
+        return this.resampleFixed(src, AudioBufferPyramid.getLevel(src, level), level, dst, srcPhase);
+    }
+
+    /**
+     * Resamples from the given pyramid without waiting for missing levels to be built. Until they are built in the background, the wrapped resampler resamples the buffer directly.
+     *
+     * @param pyramid The pyramid of the source buffer (See {@link AudioBufferPyramid#of(AudioBuffer)})
+     */
+    public long resampleFixed(final AudioBuffer src, final AudioBufferPyramid pyramid, final AudioBuffer dst, final long srcPhase) {
+        final int level = this.getLevel(src, dst);
+        final float[] levelSamples = level != 0 ? pyramid.getLevelIfBuilt(src, level) : null;
+        if (levelSamples == null) {
+            return this.resampler.resampleFixed(src, dst, srcPhase);
+        }
+        return this.resampleFixed(src, levelSamples, level, dst, srcPhase);
+    }
+
+    @Override
+    public int getFilterRadius(final float pitch) {
+        return this.resampler.getFilterRadius(pitch);
+    }
+
+    @Override
+    public double resampleMonoToMono(final float[] src, final float[] dst, final float pitch, final double srcPosition) {
+        return this.resampler.resampleMonoToMono(src, dst, pitch, srcPosition);
+    }
+
+    @Override
+    public double resampleStereoToStereo(final float[] src, final float[] dst, final float pitch, final double srcPosition) {
+        return this.resampler.resampleStereoToStereo(src, dst, pitch, srcPosition);
+    }
+
+    @Override
+    public double resampleMonoToStereo(final float[] src, final float[] dst, final float pitch, final double srcPosition) {
+        return this.resampler.resampleMonoToStereo(src, dst, pitch, srcPosition);
+    }
+
+    @Override
+    public double resampleStereoToMono(final float[] src, final float[] dst, final float pitch, final double srcPosition) {
+        return this.resampler.resampleStereoToMono(src, dst, pitch, srcPosition);
+    }
+
+    @Override
+    public long resampleMonoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase) {
+        return this.resampler.resampleMonoToMonoFixed(src, dst, phaseIncrement, srcPhase);
+    }
+
+    @Override
+    public long resampleStereoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase) {
+        return this.resampler.resampleStereoToStereoFixed(src, dst, phaseIncrement, srcPhase);
+    }
+
+    @Override
+    public long resampleMonoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase) {
+        return this.resampler.resampleMonoToStereoFixed(src, dst, phaseIncrement, srcPhase);
+    }
+
+    @Override
+    public long resampleStereoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase) {
+        return this.resampler.resampleStereoToMonoFixed(src, dst, phaseIncrement, srcPhase);
+    }
+
+    public Resampler getResampler() {
+        return this.resampler;
+    }
+
+    private int getLevel(final AudioBuffer src, final AudioBuffer dst) {
+        final float pitch = src.format().sampleRate() / dst.format().sampleRate();
+        return pitch >= 2F ? Math.min(31 - Integer.numberOfLeadingZeros((int) pitch), AudioBufferPyramid.getMaxLevel(src)) : 0;
+    }
+
+    // The phase is scaled to the level by shifting and only the advance is scaled back, so the bits shifted out are kept and positions don't drift
+    private long resampleFixed(final AudioBuffer src, final float[] levelSamples, final int level, final AudioBuffer dst, final long srcPhase) {
+        final float pitch = src.format().sampleRate() / dst.format().sampleRate();
+        final long levelPhase = srcPhase >> level;
+        final long levelEndPhase = this.resampler.resampleFixed(levelSamples, src.format().channels(), dst.samples(), dst.format().channels(), FixedPointPhase.fromPitch(Math.scalb(pitch, -level)), levelPhase);
+        return srcPhase + ((levelEndPhase - levelPhase) << level);
+    }
+
+}
@@ -17,9 +17,10 @@
  */
 package net.raphimc.audiomixer.resampler.impl;
 
-import net.raphimc.audiomixer.resampler.Resampler;
+import net.raphimc.audiomixer.resampler.FixedPointPhase;
+import net.raphimc.audiomixer.resampler.FixedPointResampler;
 
-public final class PointResampler implements Resampler {
+public final class PointResampler extends FixedPointResampler {
 
     public static final PointResampler INSTANCE = new PointResampler();
 
@@ -27,46 +28,60 @@ public final class PointResampler implements Resampler {
     }
 
     @Override
-    public double resampleMonoToMono(final float[] src, final float[] dst, final float pitch, double srcPosition) {
-        for (int dstPosition = 0; dstPosition < dst.length && srcPosition < src.length; dstPosition++) {
-            final int index = (int) srcPosition;
+    public long resampleMonoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        if (phaseIncrement == FixedPointPhase.ONE) { // Unity pitch: The fraction is ignored, so this is a plain copy
+            final int offset = FixedPointPhase.index(srcPhase);
+            final int count = Math.min(dst.length, Math.max(src.length - offset, 0));
+            System.arraycopy(src, offset, dst, 0, count);
+            return srcPhase + FixedPointPhase.fromIndex(count);
+        }
+        final long srcEndPhase = FixedPointPhase.fromIndex(src.length);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition++) {
+            final int index = FixedPointPhase.index(srcPhase);
             dst[dstPosition] = src[index];
-            srcPosition += pitch;
+            srcPhase += phaseIncrement;
         }
-        return srcPosition;
+        return srcPhase;
     }
 
     @Override
-    public double resampleStereoToStereo(final float[] src, final float[] dst, final float pitch, double srcPosition) {
-        final int srcFrameLength = src.length / 2;
-        for (int dstPosition = 0; dstPosition < dst.length && srcPosition < srcFrameLength; dstPosition += 2) {
-            final int index = (int) srcPosition * 2;
+    public long resampleStereoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        if (phaseIncrement == FixedPointPhase.ONE) { // Unity pitch: The fraction is ignored, so this is a plain copy
+            final int offset = FixedPointPhase.index(srcPhase) * 2;
+            final int count = Math.min(dst.length, Math.max(src.length - offset, 0));
+            System.arraycopy(src, offset, dst, 0, count);
+            return srcPhase + FixedPointPhase.fromIndex(count / 2);
+        }
+        final long srcEndPhase = FixedPointPhase.fromIndex(src.length / 2);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition += 2) {
+            final int index = FixedPointPhase.index(srcPhase) * 2;
             dst[dstPosition] = src[index];
             dst[dstPosition + 1] = src[index + 1];
-            srcPosition += pitch;
+            srcPhase += phaseIncrement;
         }
-        return srcPosition;
+        return srcPhase;
     }
 
     @Override
-    public double resampleMonoToStereo(final float[] src, final float[] dst, final float pitch, double srcPosition) {
-        for (int dstPosition = 0; dstPosition < dst.length && srcPosition < src.length; dstPosition += 2) {
-            final int index = (int) srcPosition;
+    public long resampleMonoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        final long srcEndPhase = FixedPointPhase.fromIndex(src.length);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition += 2) {
+            final int index = FixedPointPhase.index(srcPhase);
             dst[dstPosition] = dst[dstPosition + 1] = src[index];
-            srcPosition += pitch;
+            srcPhase += phaseIncrement;
         }
-        return srcPosition;
+        return srcPhase;
     }
 
     @Override
-    public double resampleStereoToMono(final float[] src, final float[] dst, final float pitch, double srcPosition) {
-        final int srcFrameLength = src.length / 2;
-        for (int dstPosition = 0; dstPosition < dst.length && srcPosition < srcFrameLength; dstPosition++) {
-            final int index = (int) srcPosition * 2;
+    public long resampleStereoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        final long srcEndPhase = FixedPointPhase.fromIndex(src.length / 2);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition++) {
+            final int index = FixedPointPhase.index(srcPhase) * 2;
             dst[dstPosition] = (src[index] + src[index + 1]) / 2F;
-            srcPosition += pitch;
+            srcPhase += phaseIncrement;
         }
-        return srcPosition;
+        return srcPhase;
     }
 
 }
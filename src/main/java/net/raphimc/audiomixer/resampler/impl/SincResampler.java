@@ -0,0 +1,412 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.resampler.impl;
+
+import net.raphimc.audiomixer.resampler.FixedPointPhase;
+import net.raphimc.audiomixer.resampler.FixedPointResampler;
+import net.raphimc.audiomixer.util.math.MathUtil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+// Polyphase Kaiser windowed sinc resampler. The filter is widened when pitching up, so frequencies above the new nyquist frequency are removed instead of aliased.
+public final class SincResampler extends FixedPointResampler {
+
+    private static final Map<Long, SincResampler> INSTANCES = new ConcurrentHashMap<>();
+    private static final double KAISER_BETA = 8.6D; // About 90 dB stopband attenuation
+    private static final int MAX_DENOMINATOR = 160;
+    private static final int[] RATIONAL_DENOMINATORS = IntStream.concat(IntStream.rangeClosed(1, 16), IntStream.of(MAX_DENOMINATOR)).toArray(); // Integer interpolation, small ratios and 44.1 kHz to 48 kHz (147 / 160)
+
+    public static final int DEFAULT_TAP_COUNT = 32;
+    public static final int DEFAULT_PHASE_COUNT = 256;
+    public static final SincResampler INSTANCE = of(DEFAULT_TAP_COUNT, DEFAULT_PHASE_COUNT);
+
+    private final int tapCount;
+    private final int phaseCount;
+    private final int radius;
+    private final double cutoff;
+    private final float[] coefficients; // (phaseCount + 1) rows of tapCount coefficients. Row p is used for source positions with a fractional part of p / phaseCount.
+    private final float[] kernel; // One side of the filter sampled phaseCount times per source frame. Used when pitching up.
+    private final float[] kernelSlopes;
+    private final float[][] rationalCoefficients = new float[MAX_DENOMINATOR + 1][]; // Exact rows for the fractions of rational pitches, indexed by denominator. Other pitches use the interpolated rows.
+
+    private SincResampler(final int tapCount, final int phaseCount) {
+        this.tapCount = tapCount;
+        this.phaseCount = phaseCount;
+        this.radius = tapCount / 2;
+        this.cutoff = 1D - 4D / tapCount; // Leaves room for the transition band below the nyquist frequency
+
+        this.coefficients = new float[(phaseCount + 1) * tapCount];
+        for (int phase = 0; phase <= phaseCount; phase++) {
+            this.computeRow((double) phase / phaseCount, this.coefficients, phase * tapCount);
+        }
+        this.kernel = new float[this.radius * phaseCount + 1];
+        this.kernelSlopes = new float[this.kernel.length];
+        for (int i = 0; i < this.kernel.length; i++) {
+            this.kernel[i] = (float) filter((double) i / phaseCount, this.radius, this.cutoff);
+        }
+        for (int i = 0; i < this.kernel.length - 1; i++) {
+            this.kernelSlopes[i] = this.kernel[i + 1] - this.kernel[i];
+        }
+        for (final int denominator : RATIONAL_DENOMINATORS) {
+            final float[] rows = new float[denominator * tapCount];
+            for (int i = 0; i < denominator; i++) {
+                this.computeRow((double) i / denominator, rows, i * tapCount);
+            }
+            this.rationalCoefficients[denominator] = rows;
+        }
+    }
+
+    /**
+     * Returns a resampler with the given filter length and phase resolution. Filter tables are computed once and shared by all users of the same configuration.
+     *
+     * @param tapCount   The number of source frames used per output frame (Without pitching up). Higher values give a steeper cutoff at the cost of performance.
+     * @param phaseCount The number of precomputed filter phases per source frame. Positions in between are linearly interpolated.
+     * @return The resampler
+     */
+    public static SincResampler of(final int tapCount, final int phaseCount) {
+        if (tapCount < 8 || tapCount % 2 != 0) {
+            throw new IllegalArgumentException("Tap count must be an even number >= 8");
+        }
+        if (phaseCount <= 0) {
+            throw new IllegalArgumentException("Phase count must be > 0");
+        }
+        return INSTANCES.computeIfAbsent(((long) tapCount << 32) | phaseCount, key -> new SincResampler(tapCount, phaseCount));
+    }
+
+    @Override
+    public long resampleMonoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        if (phaseIncrement <= FixedPointPhase.ONE) { // Integer interpolation and rational ratios: The fraction cycles through a few values
+            final int denominator = FixedPointPhase.findDenominator(phaseIncrement, MAX_DENOMINATOR);
+            final int numerator = this.rationalCoefficients[denominator] != null ? FixedPointPhase.latticeNumerator(srcPhase, denominator) : -1;
+            if (numerator != -1) {
+                return this.resampleMonoToMonoRational(src, dst, phaseIncrement, srcPhase, denominator, numerator);
+            }
+        }
+        final float pitch = (float) FixedPointPhase.toPosition(phaseIncrement);
+        final int srcFrameLength = src.length;
+        final long srcEndPhase = FixedPointPhase.fromIndex(srcFrameLength);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition++) {
+            dst[dstPosition] = pitch > 1F ? this.interpolateMonoScaled(src, srcFrameLength, srcPhase, pitch) : this.interpolateMono(src, srcFrameLength, srcPhase);
+            srcPhase += phaseIncrement;
+        }
+        return srcPhase;
+    }
+
+    @Override
+    public long resampleStereoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        if (phaseIncrement <= FixedPointPhase.ONE) { // Integer interpolation and rational ratios: The fraction cycles through a few values
+            final int denominator = FixedPointPhase.findDenominator(phaseIncrement, MAX_DENOMINATOR);
+            final int numerator = this.rationalCoefficients[denominator] != null ? FixedPointPhase.latticeNumerator(srcPhase, denominator) : -1;
+            if (numerator != -1) {
+                return this.resampleStereoToStereoRational(src, dst, phaseIncrement, srcPhase, denominator, numerator);
+            }
+        }
+        final float pitch = (float) FixedPointPhase.toPosition(phaseIncrement);
+        final int srcFrameLength = src.length / 2;
+        final long srcEndPhase = FixedPointPhase.fromIndex(srcFrameLength);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition += 2) {
+            if (pitch > 1F) {
+                this.interpolateStereoScaled(src, srcFrameLength, srcPhase, pitch, dst, dstPosition);
+            } else {
+                this.interpolateStereo(src, srcFrameLength, srcPhase, dst, dstPosition);
+            }
+            srcPhase += phaseIncrement;
+        }
+        return srcPhase;
+    }
+
+    @Override
+    public long resampleMonoToStereoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        final float pitch = (float) FixedPointPhase.toPosition(phaseIncrement);
+        final int srcFrameLength = src.length;
+        final long srcEndPhase = FixedPointPhase.fromIndex(srcFrameLength);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition += 2) {
+            dst[dstPosition] = dst[dstPosition + 1] = pitch > 1F ? this.interpolateMonoScaled(src, srcFrameLength, srcPhase, pitch) : this.interpolateMono(src, srcFrameLength, srcPhase);
+            srcPhase += phaseIncrement;
+        }
+        return srcPhase;
+    }
+
+    @Override
+    public long resampleStereoToMonoFixed(final float[] src, final float[] dst, final long phaseIncrement, long srcPhase) {
+        final float pitch = (float) FixedPointPhase.toPosition(phaseIncrement);
+        final int srcFrameLength = src.length / 2;
+        final long srcEndPhase = FixedPointPhase.fromIndex(srcFrameLength);
+        for (int dstPosition = 0; dstPosition < dst.length && srcPhase < srcEndPhase; dstPosition++) {
+            dst[dstPosition] = pitch > 1F ? this.interpolateDownmixScaled(src, srcFrameLength, srcPhase, pitch) : this.interpolateDownmix(src, srcFrameLength, srcPhase);
+            srcPhase += phaseIncrement;
+        }
+        return srcPhase;
+    }
+
+    @Override
+    public int getFilterRadius(final float pitch) {
+        return pitch > 1F ? (int) Math.ceil(this.radius * pitch) + 1 : this.radius;
+    }
+
+    public int getTapCount() {
+        return this.tapCount;
+    }
+
+    public int getPhaseCount() {
+        return this.phaseCount;
+    }
+
+    // The source position is index + numerator / denominator. A single exact row is used per frame instead of interpolating between two rows.
+    private long resampleMonoToMonoRational(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase, final int denominator, final int startNumerator) {
+        final float[] rows = this.rationalCoefficients[denominator];
+        final long numeratorIncrement = FixedPointPhase.toNumerator(phaseIncrement, denominator);
+        final int indexIncrement = (int) (numeratorIncrement / denominator);
+        final int fractionIncrement = (int) (numeratorIncrement % denominator);
+        final int srcFrameLength = src.length;
+        int index = FixedPointPhase.index(srcPhase);
+        int numerator = startNumerator;
+        if (numerator == denominator) {
+            index++;
+            numerator = 0;
+        }
+        for (int dstPosition = 0; dstPosition < dst.length && index < srcFrameLength; dstPosition++) {
+            final int first = index - this.radius + 1;
+            final int end = Math.min(this.tapCount, srcFrameLength - first);
+            final int row = numerator * this.tapCount;
+            float sum = 0F;
+            for (int tap = Math.max(-first, 0); tap < end; tap++) {
+                sum += rows[row + tap] * src[first + tap];
+            }
+            dst[dstPosition] = sum;
+            index += indexIncrement;
+            numerator += fractionIncrement;
+            if (numerator >= denominator) {
+                numerator -= denominator;
+                index++;
+            }
+        }
+        return FixedPointPhase.fromRational(index, numerator, denominator);
+    }
+
+    private long resampleStereoToStereoRational(final float[] src, final float[] dst, final long phaseIncrement, final long srcPhase, final int denominator, final int startNumerator) {
+        final float[] rows = this.rationalCoefficients[denominator];
+        final long numeratorIncrement = FixedPointPhase.toNumerator(phaseIncrement, denominator);
+        final int indexIncrement = (int) (numeratorIncrement / denominator);
+        final int fractionIncrement = (int) (numeratorIncrement % denominator);
+        final int srcFrameLength = src.length / 2;
+        int index = FixedPointPhase.index(srcPhase);
+        int numerator = startNumerator;
+        if (numerator == denominator) {
+            index++;
+            numerator = 0;
+        }
+        for (int dstPosition = 0; dstPosition < dst.length && index < srcFrameLength; dstPosition += 2) {
+            final int first = index - this.radius + 1;
+            final int end = Math.min(this.tapCount, srcFrameLength - first);
+            final int row = numerator * this.tapCount;
+            float left = 0F;
+            float right = 0F;
+            for (int tap = Math.max(-first, 0); tap < end; tap++) {
+                final float coefficient = rows[row + tap];
+                final int srcIndex = (first + tap) * 2;
+                left += coefficient * src[srcIndex];
+                right += coefficient * src[srcIndex + 1];
+            }
+            dst[dstPosition] = left;
+            dst[dstPosition + 1] = right;
+            index += indexIncrement;
+            numerator += fractionIncrement;
+            if (numerator >= denominator) {
+                numerator -= denominator;
+                index++;
+            }
+        }
+        return FixedPointPhase.fromRational(index, numerator, denominator);
+    }
+
+    private void computeRow(final double fraction, final float[] dst, final int offset) {
+        double sum = 0;
+        for (int tap = 0; tap < this.tapCount; tap++) {
+            sum += filter(fraction + this.radius - 1 - tap, this.radius, this.cutoff);
+        }
+        for (int tap = 0; tap < this.tapCount; tap++) { // Normalized, so a constant signal passes unchanged
+            dst[offset + tap] = (float) (filter(fraction + this.radius - 1 - tap, this.radius, this.cutoff) / sum);
+        }
+    }
+
+    // Frames outside the source are treated as silence
+    private float interpolateMono(final float[] src, final int srcFrameLength, final long srcPhase) {
+        final int index = FixedPointPhase.index(srcPhase);
+        final float phase = FixedPointPhase.fraction(srcPhase) * this.phaseCount;
+        final int row = Math.min((int) phase, this.phaseCount - 1);
+        final float rowFraction = phase - row;
+        final int first = index - this.radius + 1;
+        final int start = Math.max(-first, 0);
+        final int end = Math.min(this.tapCount, srcFrameLength - first);
+        final int row0 = row * this.tapCount;
+        final int row1 = row0 + this.tapCount;
+        float sum0 = 0F;
+        float sum1 = 0F;
+        for (int tap = start; tap < end; tap++) {
+            final float sample = src[first + tap];
+            sum0 += this.coefficients[row0 + tap] * sample;
+            sum1 += this.coefficients[row1 + tap] * sample;
+        }
+        return sum0 + (sum1 - sum0) * rowFraction;
+    }
+
+    private void interpolateStereo(final float[] src, final int srcFrameLength, final long srcPhase, final float[] dst, final int dstPosition) {
+        final int index = FixedPointPhase.index(srcPhase);
+        final float phase = FixedPointPhase.fraction(srcPhase) * this.phaseCount;
+        final int row = Math.min((int) phase, this.phaseCount - 1);
+        final float rowFraction = phase - row;
+        final int first = index - this.radius + 1;
+        final int start = Math.max(-first, 0);
+        final int end = Math.min(this.tapCount, srcFrameLength - first);
+        final int row0 = row * this.tapCount;
+        final int row1 = row0 + this.tapCount;
+        float left0 = 0F;
+        float left1 = 0F;
+        float right0 = 0F;
+        float right1 = 0F;
+        for (int tap = start; tap < end; tap++) {
+            final int srcIndex = (first + tap) * 2;
+            final float coefficient0 = this.coefficients[row0 + tap];
+            final float coefficient1 = this.coefficients[row1 + tap];
+            final float leftSample = src[srcIndex];
+            final float rightSample = src[srcIndex + 1];
+            left0 += coefficient0 * leftSample;
+            left1 += coefficient1 * leftSample;
+            right0 += coefficient0 * rightSample;
+            right1 += coefficient1 * rightSample;
+        }
+        dst[dstPosition] = left0 + (left1 - left0) * rowFraction;
+        dst[dstPosition + 1] = right0 + (right1 - right0) * rowFraction;
+    }
+
+    private float interpolateDownmix(final float[] src, final int srcFrameLength, final long srcPhase) {
+        final int index = FixedPointPhase.index(srcPhase);
+        final float phase = FixedPointPhase.fraction(srcPhase) * this.phaseCount;
+        final int row = Math.min((int) phase, this.phaseCount - 1);
+        final float rowFraction = phase - row;
+        final int first = index - this.radius + 1;
+        final int start = Math.max(-first, 0);
+        final int end = Math.min(this.tapCount, srcFrameLength - first);
+        final int row0 = row * this.tapCount;
+        final int row1 = row0 + this.tapCount;
+        float sum0 = 0F;
+        float sum1 = 0F;
+        for (int tap = start; tap < end; tap++) {
+            final int srcIndex = (first + tap) * 2;
+            final float sample = src[srcIndex] + src[srcIndex + 1];
+            sum0 += this.coefficients[row0 + tap] * sample;
+            sum1 += this.coefficients[row1 + tap] * sample;
+        }
+        return (sum0 + (sum1 - sum0) * rowFraction) / 2F;
+    }
+
+    // The filter is stretched by the pitch, which lowers its cutoff frequency to the nyquist frequency of the output. Both filter wings are walked outwards from the current position.
+    private float interpolateMonoScaled(final float[] src, final int srcFrameLength, final long srcPhase, final float pitch) {
+        final int index = FixedPointPhase.index(srcPhase);
+        final float fraction = FixedPointPhase.fraction(srcPhase);
+        final float kernelStep = this.phaseCount / pitch;
+        final float kernelEnd = this.radius * this.phaseCount;
+        float sum = 0F;
+        float weightSum = 0F;
+        float kernelPosition = fraction * kernelStep;
+        for (int i = index; i >= 0 && kernelPosition < kernelEnd; i--) {
+            final float weight = this.kernelWeight(kernelPosition);
+            sum += weight * src[i];
+            weightSum += weight;
+            kernelPosition += kernelStep;
+        }
+        kernelPosition = (1F - fraction) * kernelStep;
+        for (int i = index + 1; i < srcFrameLength && kernelPosition < kernelEnd; i++) {
+            final float weight = this.kernelWeight(kernelPosition);
+            sum += weight * src[i];
+            weightSum += weight;
+            kernelPosition += kernelStep;
+        }
+        return weightSum != 0F ? sum / weightSum : 0F;
+    }
+
+    private void interpolateStereoScaled(final float[] src, final int srcFrameLength, final long srcPhase, final float pitch, final float[] dst, final int dstPosition) {
+        final int index = FixedPointPhase.index(srcPhase);
+        final float fraction = FixedPointPhase.fraction(srcPhase);
+        final float kernelStep = this.phaseCount / pitch;
+        final float kernelEnd = this.radius * this.phaseCount;
+        float left = 0F;
+        float right = 0F;
+        float weightSum = 0F;
+        float kernelPosition = fraction * kernelStep;
+        for (int i = index; i >= 0 && kernelPosition < kernelEnd; i--) {
+            final float weight = this.kernelWeight(kernelPosition);
+            left += weight * src[i * 2];
+            right += weight * src[i * 2 + 1];
+            weightSum += weight;
+            kernelPosition += kernelStep;
+        }
+        kernelPosition = (1F - fraction) * kernelStep;
+        for (int i = index + 1; i < srcFrameLength && kernelPosition < kernelEnd; i++) {
+            final float weight = this.kernelWeight(kernelPosition);
+            left += weight * src[i * 2];
+            right += weight * src[i * 2 + 1];
+            weightSum += weight;
+            kernelPosition += kernelStep;
+        }
+        dst[dstPosition] = weightSum != 0F ? left / weightSum : 0F;
+        dst[dstPosition + 1] = weightSum != 0F ? right / weightSum : 0F;
+    }
+
+    private float interpolateDownmixScaled(final float[] src, final int srcFrameLength, final long srcPhase, final float pitch) {
+        final int index = FixedPointPhase.index(srcPhase);
+        final float fraction = FixedPointPhase.fraction(srcPhase);
+        final float kernelStep = this.phaseCount / pitch;
+        final float kernelEnd = this.radius * this.phaseCount;
+        float sum = 0F;
+        float weightSum = 0F;
+        float kernelPosition = fraction * kernelStep;
+        for (int i = index; i >= 0 && kernelPosition < kernelEnd; i--) {
+            final float weight = this.kernelWeight(kernelPosition);
+            sum += weight * (src[i * 2] + src[i * 2 + 1]);
+            weightSum += weight;
+            kernelPosition += kernelStep;
+        }
+        kernelPosition = (1F - fraction) * kernelStep;
+        for (int i = index + 1; i < srcFrameLength && kernelPosition < kernelEnd; i++) {
+            final float weight = this.kernelWeight(kernelPosition);
+            sum += weight * (src[i * 2] + src[i * 2 + 1]);
+            weightSum += weight;
+            kernelPosition += kernelStep;
+        }
+        return weightSum != 0F ? sum / weightSum / 2F : 0F;
+    }
+
+    private float kernelWeight(final float kernelPosition) {
+        final int kernelIndex = (int) kernelPosition;
+        return this.kernel[kernelIndex] + this.kernelSlopes[kernelIndex] * (kernelPosition - kernelIndex);
+    }
+
+    private static double filter(final double x, final int radius, final double cutoff) {
+        if (Math.abs(x) >= radius) {
+            return 0D;
+        }
+        final double sinc = x == 0D ? 1D : Math.sin(Math.PI * cutoff * x) / (Math.PI * cutoff * x);
+        final double windowPosition = x / radius;
+        return cutoff * sinc * MathUtil.besselI0(KAISER_BETA * Math.sqrt(1D - windowPosition * windowPosition)) / MathUtil.besselI0(KAISER_BETA);
+    }
+
+}
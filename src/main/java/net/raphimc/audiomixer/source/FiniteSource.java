@@ -32,6 +32,15 @@ public abstract class FiniteSource extends Source {
         }
     }
 
+    @Override
+    protected boolean renderFolded(final AudioBuffer buffer, final float[] channelGains) {
+        final boolean folded = super.renderFolded(buffer, channelGains);
+        if (this.isFinished()) {
+            this.finishListeners.invoke(this);
+        }
+        return folded;
+    }
+
     public abstract boolean isFinished();
 
     public ListenerList<Source> finishListeners() {
@@ -23,8 +23,21 @@ import net.raphimc.audiomixer.util.buffer.AudioBuffer;
 
 public abstract class Source {
 
+    private static final ClassValue<Boolean> FOLDING_COMPATIBLE_CLASSES = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                final Class<?> declaringClass = type.getMethod("render", AudioBuffer.class).getDeclaringClass();
+                return declaringClass == Source.class || declaringClass == FiniteSource.class;
+            } catch (final NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
     private final Automations automations = new Automations();
     private final Processors processors = new Processors();
+    private final float[] foldedChannelGains = new float[2];
 
     public void render(final AudioBuffer buffer) {
         this.automations.process(buffer);
@@ -32,8 +45,38 @@ public abstract class Source {
         this.processors.process(buffer);
     }
 
+    // Renders this source and adds it to the buffer. For sources which support it, gain only processors are folded into the accumulation instead of being applied to the work buffer.
+    public void renderAdditive(final AudioBuffer buffer, final AudioBuffer workBuffer) {
+        workBuffer.clear();
+        if (this.supportsProcessorFolding() && FOLDING_COMPATIBLE_CLASSES.get(this.getClass())) {
+            if (this.renderFolded(workBuffer, this.foldedChannelGains)) {
+                buffer.addScaled(workBuffer, this.foldedChannelGains);
+            } else {
+                buffer.add(workBuffer);
+            }
+        } else {
+            this.render(workBuffer);
+            buffer.add(workBuffer);
+        }
+    }
+
     protected abstract void renderInternal(final AudioBuffer buffer);
 
+    /**
+     * Sources which opt in are rendered with {@link #renderFolded(AudioBuffer, float[])} instead of {@link #render(AudioBuffer)} when they are mixed.<br>
+     * Folding is skipped for subclasses which override {@link #render(AudioBuffer)}, because they might process the buffer after the processors have run.
+     */
+    protected boolean supportsProcessorFolding() {
+        return false;
+    }
+
+    // Same as render(), but if all processors are gains, they are returned in the channel gains instead of being applied (See Processors#processFolded)
+    protected boolean renderFolded(final AudioBuffer buffer, final float[] channelGains) {
+        this.automations.process(buffer);
+        this.renderInternal(buffer);
+        return this.processors.processFolded(buffer, channelGains);
+    }
+
     public Automations automations() {
         return this.automations;
     }
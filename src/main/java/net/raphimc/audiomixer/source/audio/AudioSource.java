@@ -18,11 +18,14 @@
 package net.raphimc.audiomixer.source.audio;
 
 import net.raphimc.audiomixer.parameter.FloatParameter;
+import net.raphimc.audiomixer.resampler.FixedPointPhase;
 import net.raphimc.audiomixer.resampler.Resampler;
 import net.raphimc.audiomixer.resampler.impl.LinearResampler;
+import net.raphimc.audiomixer.resampler.impl.MipmapResampler;
 import net.raphimc.audiomixer.source.FiniteSource;
 import net.raphimc.audiomixer.util.AudioFormat;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.buffer.AudioBufferPyramid;
 
 public abstract class AudioSource extends FiniteSource {
 
@@ -31,7 +34,9 @@ public abstract class AudioSource extends FiniteSource {
     protected AudioBuffer buffer;
     private final FloatParameter sampleRate;
     private final FloatParameter pitch;
-    protected double position;
+    protected long phase; // The position in 32.32 fixed point (See FixedPointPhase)
+    private AudioBufferPyramid pyramid; // Looked up once per sample array, so that rendering doesn't lock the global pyramid cache. Only used by the render thread.
+    private float[] pyramidSamples;
 
     public AudioSource(final AudioBuffer buffer) {
         this(buffer, LinearResampler.INSTANCE);
@@ -47,12 +52,21 @@ public abstract class AudioSource extends FiniteSource {
 
     @Override
     protected void renderInternal(final AudioBuffer buffer) {
-        this.position = Math.min(this.resampler.resample(this.buffer, buffer, this.position), this.buffer.frameCount());
+        if (this.resampler instanceof MipmapResampler mipmapResampler) {
+            this.phase = Math.min(mipmapResampler.resampleFixed(this.buffer, this.getPyramid(), buffer, this.phase), FixedPointPhase.fromIndex(this.buffer.frameCount()));
+        } else {
+            this.phase = Math.min(this.resampler.resampleFixed(this.buffer, buffer, this.phase), FixedPointPhase.fromIndex(this.buffer.frameCount()));
+        }
     }
 
     @Override
     public boolean isFinished() {
-        return this.position >= this.buffer.frameCount();
+        return this.phase >= FixedPointPhase.fromIndex(this.buffer.frameCount());
+    }
+
+    @Override
+    protected boolean supportsProcessorFolding() {
+        return true;
     }
 
     public AudioFormat getFormat() {
@@ -60,7 +74,7 @@ public abstract class AudioSource extends FiniteSource {
     }
 
     public int getRemainingFrameCount() {
-        return this.buffer.frameCount() - (int) this.position;
+        return this.buffer.frameCount() - FixedPointPhase.index(this.phase);
     }
 
     public float getRemainingMillisecondLength() {
@@ -75,6 +89,15 @@ public abstract class AudioSource extends FiniteSource {
         return this.pitch;
     }
 
+    private AudioBufferPyramid getPyramid() {
+        final AudioBuffer buffer = this.buffer;
+        if (this.pyramidSamples != buffer.samples()) {
+            this.pyramid = AudioBufferPyramid.of(buffer);
+            this.pyramidSamples = buffer.samples();
+        }
+        return this.pyramid;
+    }
+
     protected float getSampleRate() {
         return this.getFormat().sampleRate();
     }
@@ -17,31 +17,86 @@
  */
 package net.raphimc.audiomixer.source.audio;
 
+import net.raphimc.audiomixer.resampler.FixedPointPhase;
 import net.raphimc.audiomixer.resampler.Resampler;
+import net.raphimc.audiomixer.resampler.StreamingResampler;
 import net.raphimc.audiomixer.util.AudioFormat;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
 
 public abstract class StreamingAudioSource extends AudioSource {
 
-    private static final int MARGIN_FRAME_COUNT = 4;
+    // Enqueued buffers are kept as is and only the part needed for the current render is written into the streaming resampler
+    private final StreamingResampler streamingResampler;
+    private float[][] segments = new float[4][];
+    private int segmentHead;
+    private int segmentCount;
+    private int segmentFrameCount;
+    private int writePosition; // Relative to the first segment, like the position
+    private volatile int remainingFrameCountEstimate; // Published after every change, so it can be read without waiting for the lock
 
     public StreamingAudioSource(final AudioFormat format) {
         super(new AudioBuffer(format, 0));
+        this.streamingResampler = new StreamingResampler(this.resampler, format.channels());
     }
 
     public StreamingAudioSource(final AudioFormat format, final Resampler resampler) {
         super(new AudioBuffer(format, 0), resampler);
+        this.streamingResampler = new StreamingResampler(this.resampler, format.channels());
     }
 
     @Override
     protected synchronized void renderInternal(final AudioBuffer buffer) {
-        super.renderInternal(buffer);
+        final float pitch = this.getFormat().sampleRate() / buffer.format().sampleRate();
+        this.writeSegments(Math.min(this.streamingResampler.getRequiredFrameCount(buffer.frameCount(), pitch), this.segmentFrameCount - this.writePosition));
+        this.phase = Math.min(this.phase + this.streamingResampler.read(buffer.samples(), buffer.format().channels(), pitch), FixedPointPhase.fromIndex(this.segmentFrameCount));
+
+        final int channels = this.getFormat().channels();
+        while (this.segmentCount > 0 && this.segments[this.segmentHead].length / channels <= FixedPointPhase.index(this.phase)) { // Drop consumed segments (The streaming resampler keeps the history)
+            final int frameCount = this.segments[this.segmentHead].length / channels;
+            this.segments[this.segmentHead] = null;
+            this.segmentHead = (this.segmentHead + 1) % this.segments.length;
+            this.segmentCount--;
+            this.segmentFrameCount -= frameCount;
+            this.phase -= FixedPointPhase.fromIndex(frameCount);
+            this.writePosition -= frameCount;
+        }
+        this.remainingFrameCountEstimate = this.segmentFrameCount - FixedPointPhase.index(this.phase);
     }
 
     protected synchronized void enqueueBuffer(final AudioBuffer buffer) {
-        final int frameOffset = Math.max((int) this.position - MARGIN_FRAME_COUNT, 0);
-        this.buffer = this.buffer.slice(frameOffset * this.getFormat().channels(), this.buffer.sampleCount()).append(buffer);
-        this.position -= frameOffset;
+        if (buffer.format().channels() != this.getFormat().channels()) {
+            throw new IllegalArgumentException("Channel count mismatch: " + buffer.format().channels() + " != " + this.getFormat().channels());
+        }
+        if (buffer.sampleCount() != 0) {
+            if (this.segmentCount == this.segments.length) {
+                final float[][] newSegments = new float[this.segments.length << 1][];
+                for (int i = 0; i < this.segmentCount; i++) {
+                    newSegments[i] = this.segments[(this.segmentHead + i) % this.segments.length];
+                }
+                this.segments = newSegments;
+                this.segmentHead = 0;
+            }
+            this.segments[(this.segmentHead + this.segmentCount++) % this.segments.length] = buffer.samples(); // The buffer is not copied and must not be modified afterwards
+            this.segmentFrameCount += buffer.frameCount();
+            this.remainingFrameCountEstimate = this.segmentFrameCount - FixedPointPhase.index(this.phase);
+        }
+    }
+
+    @Override
+    public synchronized boolean isFinished() {
+        return this.phase >= FixedPointPhase.fromIndex(this.segmentFrameCount);
+    }
+
+    @Override
+    public synchronized int getRemainingFrameCount() {
+        return this.segmentFrameCount - FixedPointPhase.index(this.phase);
+    }
+
+    /**
+     * Like {@link #getRemainingFrameCount()}, but doesn't lock the source. The value might be from before a concurrent render or enqueue.
+     */
+    public int getRemainingFrameCountEstimate() {
+        return this.remainingFrameCountEstimate;
     }
 
     @Override
@@ -49,4 +104,21 @@ public abstract class StreamingAudioSource extends AudioSource {
         super.setSampleRate(sampleRate);
     }
 
+    private void writeSegments(final int frameCount) {
+        final int channels = this.getFormat().channels();
+        int segmentStart = 0;
+        int remainingFrameCount = frameCount;
+        for (int i = 0; i < this.segmentCount && remainingFrameCount > 0; i++) {
+            final float[] segment = this.segments[(this.segmentHead + i) % this.segments.length];
+            final int segmentEnd = segmentStart + segment.length / channels;
+            if (segmentEnd > this.writePosition) {
+                final int count = Math.min(remainingFrameCount, segmentEnd - this.writePosition);
+                this.streamingResampler.write(segment, (this.writePosition - segmentStart) * channels, count);
+                this.writePosition += count;
+                remainingFrameCount -= count;
+            }
+            segmentStart = segmentEnd;
+        }
+    }
+
 }
@@ -17,33 +17,87 @@
  */
 package net.raphimc.audiomixer.source.audio.impl;
 
+import net.raphimc.audiomixer.resampler.FixedPointPhase;
 import net.raphimc.audiomixer.resampler.Resampler;
+import net.raphimc.audiomixer.resampler.StreamingResampler;
+import net.raphimc.audiomixer.resampler.impl.LinearResampler;
 import net.raphimc.audiomixer.source.audio.AudioSource;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.buffer.storage.AudioStorage;
 
 public class BufferedAudioSource extends AudioSource {
 
+    protected final StreamingResampler streamingResampler;
+    protected int writePosition; // Next storage frame to write into the streaming resampler. Only used by the render thread.
+    private volatile boolean primingRequested = true; // Set when the position jumps. The render thread primes the streaming resampler again at the start of the next render.
+    private final AudioStorage storage;
+
     public BufferedAudioSource(final AudioBuffer buffer) {
         super(buffer);
+        this.storage = buffer;
+        this.streamingResampler = new StreamingResampler(this.resampler, buffer.format().channels());
     }
 
     public BufferedAudioSource(final AudioBuffer buffer, final Resampler resampler) {
         super(buffer, resampler);
+        this.storage = buffer;
+        this.streamingResampler = new StreamingResampler(this.resampler, buffer.format().channels());
+    }
+
+    public BufferedAudioSource(final AudioStorage storage) {
+        this(storage, LinearResampler.INSTANCE);
+    }
+
+    public BufferedAudioSource(final AudioStorage storage, final Resampler resampler) {
+        super(storage instanceof AudioBuffer buffer ? buffer : new AudioBuffer(storage.format(), 0), resampler);
+        this.storage = storage;
+        this.streamingResampler = new StreamingResampler(this.resampler, storage.format().channels());
+    }
+
+    // Storages other than audio buffers are decoded on the fly. Only the frames needed for the current render are decoded into the streaming resampler.
+    @Override
+    protected void renderInternal(final AudioBuffer buffer) {
+        if (this.storage instanceof AudioBuffer) {
+            super.renderInternal(buffer);
+            return;
+        }
+
+        final float pitch = this.getFormat().sampleRate() / buffer.format().sampleRate();
+        this.primeStreamingResamplerIfRequested(pitch);
+        final int frameCount = Math.min(this.streamingResampler.getRequiredFrameCount(buffer.frameCount(), pitch), this.getFrameCount() - this.writePosition);
+        this.streamingResampler.write(this.storage, this.writePosition, frameCount);
+        this.writePosition += frameCount;
+        this.phase = Math.min(this.phase + this.streamingResampler.read(buffer.samples(), buffer.format().channels(), pitch), FixedPointPhase.fromIndex(this.getFrameCount()));
+    }
+
+    @Override
+    public boolean isFinished() {
+        return this.phase >= FixedPointPhase.fromIndex(this.getFrameCount());
+    }
+
+    @Override
+    public int getRemainingFrameCount() {
+        return this.getFrameCount() - FixedPointPhase.index(this.phase);
+    }
+
+    public AudioStorage getStorage() {
+        return this.storage;
     }
 
     public int getFrameCount() {
-        return this.buffer.frameCount();
+        return this.storage.frameCount();
     }
 
     public double getPosition() {
-        return this.position;
+        return FixedPointPhase.toPosition(this.phase);
     }
 
     public void setPosition(final double position) {
         if (position < 0 || position > this.getFrameCount()) {
             throw new IllegalArgumentException("Position must be in [0, frame count]");
         }
-        this.position = position;
+        this.phase = FixedPointPhase.fromPosition(position);
+        this.requestPriming();
     }
 
     public float getProgress() {
@@ -54,4 +108,25 @@ public class BufferedAudioSource extends AudioSource {
         this.setPosition((int) ((double) progress * this.getFrameCount()));
     }
 
+    protected void requestPriming() {
+        this.primingRequested = true;
+    }
+
+    protected void primeStreamingResamplerIfRequested(final float pitch) {
+        if (this.primingRequested) {
+            this.primingRequested = false; // Cleared first, so a request made while priming is not lost
+            this.primeStreamingResampler(pitch);
+        }
+    }
+
+    // Writes the frames before the current position as history, so that resamplers which look back don't have to reflect at the seek position
+    protected void primeStreamingResampler(final float pitch) {
+        final int position = FixedPointPhase.index(this.phase);
+        final int historyStart = Math.max(position - this.resampler.getFilterRadius(pitch), 0);
+        this.streamingResampler.reset();
+        this.streamingResampler.write(this.storage, historyStart, position - historyStart);
+        this.streamingResampler.skip(this.phase - FixedPointPhase.fromIndex(historyStart));
+        this.writePosition = position;
+    }
+
 }
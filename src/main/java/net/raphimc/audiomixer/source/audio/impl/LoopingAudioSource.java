@@ -17,19 +17,17 @@
  */
 package net.raphimc.audiomixer.source.audio.impl;
 
+import net.raphimc.audiomixer.resampler.FixedPointPhase;
 import net.raphimc.audiomixer.resampler.Resampler;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
-
-import java.util.Arrays;
+import net.raphimc.audiomixer.util.buffer.storage.AudioStorage;
 
 public class LoopingAudioSource extends BufferedAudioSource {
 
-    private static final int MARGIN_FRAME_COUNT = 4;
-
-    private final LoopBuffer loopBuffer = new LoopBuffer();
     private boolean loopEnabled = true;
     private int loopStartPosition;
     private int loopEndPosition;
+    private boolean looped; // Whether the position wrapped at the loop end. Only used by the render thread.
 
     public LoopingAudioSource(final AudioBuffer buffer) {
         super(buffer);
@@ -47,64 +45,98 @@ public class LoopingAudioSource extends BufferedAudioSource {
         this.loopEndPosition = this.getFrameCount() - 1;
     }
 
+    public LoopingAudioSource(final AudioStorage storage) {
+        super(storage);
+        if (this.getFrameCount() == 0) {
+            throw new IllegalArgumentException("Buffer must not be empty");
+        }
+        this.loopEndPosition = this.getFrameCount() - 1;
+    }
+
+    public LoopingAudioSource(final AudioStorage storage, final Resampler resampler) {
+        super(storage, resampler);
+        if (this.getFrameCount() == 0) {
+            throw new IllegalArgumentException("Buffer must not be empty");
+        }
+        this.loopEndPosition = this.getFrameCount() - 1;
+    }
+
+    // The loop is unrolled into the streaming resampler, so the resampler sees the frames after the loop end continue at the loop start
     @Override
     protected void renderInternal(final AudioBuffer buffer) {
-        this.loopBuffer.clear();
-        int sourcePosition = (int) this.position;
         final float pitch = this.getFormat().sampleRate() / buffer.format().sampleRate();
-        int neededFrameCount = (int) Math.ceil((double) buffer.frameCount() * pitch) + MARGIN_FRAME_COUNT;
-        if (sourcePosition < this.loopStartPosition && neededFrameCount > 0) { // Intro
-            final int frameCount = Math.min(neededFrameCount, this.loopStartPosition - sourcePosition);
-            this.loopBuffer.append(this.buffer, sourcePosition, frameCount);
-            sourcePosition += frameCount;
+        this.primeStreamingResamplerIfRequested(pitch);
+        int neededFrameCount = this.streamingResampler.getRequiredFrameCount(buffer.frameCount(), pitch);
+        if (this.writePosition < this.loopStartPosition && neededFrameCount > 0) { // Intro
+            final int frameCount = Math.min(neededFrameCount, this.loopStartPosition - this.writePosition);
+            this.streamingResampler.write(this.getStorage(), this.writePosition, frameCount);
+            this.writePosition += frameCount;
             neededFrameCount -= frameCount;
         }
-        if (this.loopEnabled && sourcePosition >= this.loopStartPosition && sourcePosition <= this.loopEndPosition) { // Loop
+        if (this.loopEnabled && this.writePosition >= this.loopStartPosition && this.writePosition <= this.loopEndPosition) { // Loop
             while (neededFrameCount > 0) {
-                final int frameCount = Math.min(Math.min(neededFrameCount, this.getLoopFrameCount()), this.loopEndPosition - sourcePosition + 1);
-                this.loopBuffer.append(this.buffer, sourcePosition, frameCount);
-                sourcePosition += frameCount;
+                final int frameCount = Math.min(Math.min(neededFrameCount, this.getLoopFrameCount()), this.loopEndPosition - this.writePosition + 1);
+                this.streamingResampler.write(this.getStorage(), this.writePosition, frameCount);
+                this.writePosition += frameCount;
                 neededFrameCount -= frameCount;
-                if (sourcePosition > this.loopEndPosition) {
-                    sourcePosition = this.loopStartPosition + (sourcePosition - this.loopStartPosition) % this.getLoopFrameCount();
+                if (this.writePosition > this.loopEndPosition) {
+                    this.writePosition = this.loopStartPosition + (this.writePosition - this.loopStartPosition) % this.getLoopFrameCount();
                 }
             }
         } else if (neededFrameCount > 0) { // Outro
-            final int frameCount = Math.min(neededFrameCount, this.getFrameCount() - sourcePosition);
-            this.loopBuffer.append(this.buffer, sourcePosition, frameCount);
-            neededFrameCount -= frameCount;
-            if (neededFrameCount > 0) { // Reached end of source buffer
-                this.loopBuffer.trimToSize();
-            }
+            final int frameCount = Math.min(neededFrameCount, this.getFrameCount() - this.writePosition);
+            this.streamingResampler.write(this.getStorage(), this.writePosition, frameCount);
+            this.writePosition += frameCount;
         }
 
-        final double fractionalPosition = this.position % 1;
-        double consumedFrameCount = this.resampler.resample(this.loopBuffer.array, this.getFormat(), buffer.samples(), buffer.format(), fractionalPosition) - fractionalPosition;
-        if (this.position < this.loopStartPosition && consumedFrameCount > 0) { // Intro
-            final double frameCount = Math.min(consumedFrameCount, this.loopStartPosition - this.position);
-            this.position += frameCount;
-            consumedFrameCount -= frameCount;
+        long consumedPhase = this.streamingResampler.read(buffer.samples(), buffer.format().channels(), pitch);
+        final long loopStartPhase = FixedPointPhase.fromIndex(this.loopStartPosition);
+        if (this.phase < loopStartPhase && consumedPhase > 0) { // Intro
+            final long phaseIncrement = Math.min(consumedPhase, loopStartPhase - this.phase);
+            this.phase += phaseIncrement;
+            consumedPhase -= phaseIncrement;
         }
-        if (this.loopEnabled && (int) this.position >= this.loopStartPosition && (int) this.position <= this.loopEndPosition) { // Loop
-            while (consumedFrameCount > 0) {
-                final double frameCount = Math.min(Math.min(consumedFrameCount, this.getLoopFrameCount()), this.loopEndPosition - this.position + 1);
-                this.position += frameCount;
-                consumedFrameCount -= frameCount;
-                if ((int) this.position > this.loopEndPosition) {
-                    this.position = this.loopStartPosition + (this.position - this.loopStartPosition) % this.getLoopFrameCount();
+        if (this.loopEnabled && FixedPointPhase.index(this.phase) >= this.loopStartPosition && FixedPointPhase.index(this.phase) <= this.loopEndPosition) { // Loop
+            final long loopPhaseLength = FixedPointPhase.fromIndex(this.getLoopFrameCount());
+            while (consumedPhase > 0) {
+                final long phaseIncrement = Math.min(Math.min(consumedPhase, loopPhaseLength), FixedPointPhase.fromIndex(this.loopEndPosition + 1) - this.phase);
+                this.phase += phaseIncrement;
+                consumedPhase -= phaseIncrement;
+                if (FixedPointPhase.index(this.phase) > this.loopEndPosition) {
+                    this.phase = loopStartPhase + (this.phase - loopStartPhase) % loopPhaseLength;
+                    this.looped = true;
                 }
             }
-        } else if (consumedFrameCount > 0) { // Outro
-            this.position += Math.min(consumedFrameCount, this.getFrameCount() - this.position);
+        } else if (consumedPhase > 0) { // Outro
+            this.phase += Math.min(consumedPhase, FixedPointPhase.fromIndex(this.getFrameCount()) - this.phase);
         }
     }
 
+    // After a wrap the frames before the loop start were played from the loop end, so the loop tail is written as history instead of the frames before the loop start
+    @Override
+    protected void primeStreamingResampler(final float pitch) {
+        final int position = FixedPointPhase.index(this.phase);
+        final int historyStart = position - this.resampler.getFilterRadius(pitch);
+        if (!this.loopEnabled || !this.looped || position < this.loopStartPosition || position > this.loopEndPosition || historyStart >= this.loopStartPosition) {
+            super.primeStreamingResampler(pitch);
+            return;
+        }
+
+        final int tailFrameCount = Math.min(this.loopStartPosition - historyStart, this.getLoopFrameCount());
+        this.streamingResampler.reset();
+        this.streamingResampler.write(this.getStorage(), this.loopEndPosition + 1 - tailFrameCount, tailFrameCount);
+        this.streamingResampler.write(this.getStorage(), this.loopStartPosition, position - this.loopStartPosition);
+        this.streamingResampler.skip(this.phase - FixedPointPhase.fromIndex(this.loopStartPosition - tailFrameCount));
+        this.writePosition = position;
+    }
+
     public boolean isLoopEnabled() {
         return this.loopEnabled;
     }
 
     public void setLoopEnabled(final boolean loopEnabled) {
         this.loopEnabled = loopEnabled;
+        this.requestPriming();
     }
 
     public int getLoopStartPosition() {
@@ -119,6 +151,7 @@ public class LoopingAudioSource extends BufferedAudioSource {
         if (loopStartPosition > this.loopEndPosition) {
             this.loopEndPosition = loopStartPosition;
         }
+        this.requestPriming();
     }
 
     public int getLoopEndPosition() {
@@ -133,6 +166,7 @@ public class LoopingAudioSource extends BufferedAudioSource {
         if (loopEndPosition < this.loopStartPosition) {
             this.loopStartPosition = loopEndPosition;
         }
+        this.requestPriming();
     }
 
     public void setLoopRange(final int loopStartPosition, final int loopEndPosition) {
@@ -147,31 +181,4 @@ public class LoopingAudioSource extends BufferedAudioSource {
         return this.loopEndPosition - this.loopStartPosition + 1;
     }
 
-    private static final class LoopBuffer {
-
-        private float[] array = new float[0];
-        private int size;
-
-        private void append(final AudioBuffer buffer, final int offset, final int length) {
-            final int sampleCount = length * buffer.format().channels();
-            if (this.size + sampleCount > this.array.length) {
-                this.array = Arrays.copyOf(this.array, this.size + Math.max(sampleCount, this.size));
-            }
-            System.arraycopy(buffer.samples(), offset * buffer.format().channels(), this.array, this.size, sampleCount);
-            this.size += sampleCount;
-        }
-
-        private void trimToSize() {
-            if (this.size < this.array.length) {
-                this.array = Arrays.copyOf(this.array, this.size);
-            }
-        }
-
-        private void clear() {
-            Arrays.fill(this.array, 0, this.size, 0);
-            this.size = 0;
-        }
-
-    }
-
 }
@@ -21,15 +21,28 @@ import net.raphimc.audiomixer.io.AudioInputStream;
 import net.raphimc.audiomixer.resampler.Resampler;
 import net.raphimc.audiomixer.resampler.impl.LinearResampler;
 import net.raphimc.audiomixer.source.audio.StreamingAudioSource;
+import net.raphimc.audiomixer.util.DecoderScheduler;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.jfr.AudioMixerEvents;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class PullAudioSource extends StreamingAudioSource implements Closeable {
 
+    private static final int CHUNKS_PER_BUFFER = 4;
+
     private final AudioInputStream inputStream;
-    private final Thread readThread;
+    private final DecoderScheduler decoderScheduler;
+    private final int bufferFrameCount;
+    private final int lowWaterMarkFrameCount;
+    private final int chunkSampleCount;
+    private final DecodeJob decodeJob = new DecodeJob();
+    private final AtomicBoolean decodeScheduled = new AtomicBoolean();
+    private volatile boolean endOfStream;
+    private volatile boolean closed;
 
     public PullAudioSource(final AudioInputStream inputStream) {
         this(inputStream, 1000);
@@ -40,49 +53,100 @@ public class PullAudioSource extends StreamingAudioSource implements Closeable {
     }
 
     public PullAudioSource(final AudioInputStream inputStream, final int bufferMillis, final Resampler resampler) {
+        this(inputStream, bufferMillis, resampler, DecoderScheduler.DEFAULT);
+    }
+
+    public PullAudioSource(final AudioInputStream inputStream, final int bufferMillis, final Resampler resampler, final DecoderScheduler decoderScheduler) {
         super(inputStream.getFormat(), resampler);
         if (bufferMillis <= 0) {
             throw new IllegalArgumentException("Buffer millis must be greater than 0");
         }
 
         this.inputStream = inputStream;
-        this.readThread = new Thread(() -> {
-            final int bufferFrameCount = this.inputStream.getFormat().millisToFrameCount(bufferMillis);
-            final int bufferSampleCount = this.inputStream.getFormat().millisToSampleCount(bufferMillis);
-            try {
-                while (!Thread.currentThread().isInterrupted()) {
-                    while (!Thread.currentThread().isInterrupted() && this.getRemainingFrameCount() < bufferFrameCount) {
-                        final float[] buffer = this.inputStream.read(bufferSampleCount);
-                        this.enqueueBuffer(new AudioBuffer(this.inputStream.getFormat(), buffer));
-                        if (buffer.length < bufferSampleCount) {
-                            Thread.currentThread().interrupt();
-                        }
-                    }
-                    Thread.sleep(10);
-                }
-            } catch (final InterruptedException ignored) {
-            } catch (final Throwable e) {
-                e.printStackTrace();
-            } finally {
-                try {
-                    this.close();
-                } catch (final IOException ignored) {
-                }
-            }
-        }, "AudioMixer PullAudioSource Reader");
-        this.readThread.setDaemon(true);
-        this.readThread.start();
+        this.decoderScheduler = decoderScheduler;
+        this.bufferFrameCount = Math.max(this.inputStream.getFormat().millisToFrameCount(bufferMillis), 1);
+        this.lowWaterMarkFrameCount = Math.max(this.bufferFrameCount / 2, 1);
+        this.chunkSampleCount = Math.max(this.bufferFrameCount / CHUNKS_PER_BUFFER, 1) * this.inputStream.getFormat().channels();
+        this.scheduleDecode();
+    }
+
+    @Override
+    protected synchronized void renderInternal(final AudioBuffer buffer) {
+        super.renderInternal(buffer);
+        if (!this.endOfStream && this.getRemainingFrameCount() < this.lowWaterMarkFrameCount) {
+            this.scheduleDecode();
+        }
     }
 
     @Override
     public boolean isFinished() {
-        return !this.readThread.isAlive() && super.isFinished();
+        return this.endOfStream && super.isFinished();
     }
 
     @Override
     public void close() throws IOException {
-        this.readThread.interrupt();
+        this.closed = true;
+        this.endOfStream = true;
         this.inputStream.close();
     }
 
+    private void scheduleDecode() {
+        if (this.decodeScheduled.compareAndSet(false, true)) {
+            try {
+                this.decoderScheduler.schedule(this.decodeJob);
+            } catch (final RejectedExecutionException e) { // The scheduler has been closed
+                this.endOfStream = true;
+            }
+        }
+    }
+
+    private final class DecodeJob extends DecoderScheduler.Job {
+
+        @Override
+        public void run() {
+            final PullAudioSource source = PullAudioSource.this;
+            final Object event = AudioMixerEvents.INSTANCE.beginDecoderRefill();
+            final float bufferedMillis = event != null ? source.getRemainingMillisecondLength() : 0F;
+            int decodedSampleCount = 0;
+            try {
+                final float[] buffer = source.inputStream.read(source.chunkSampleCount);
+                source.enqueueBuffer(new AudioBuffer(source.inputStream.getFormat(), buffer));
+                decodedSampleCount = buffer.length;
+                if (buffer.length < source.chunkSampleCount) {
+                    source.endOfStream = true;
+                }
+            } catch (final Throwable e) {
+                if (!source.closed) {
+                    e.printStackTrace();
+                }
+                source.endOfStream = true;
+            }
+            if (event != null) {
+                AudioMixerEvents.INSTANCE.commitDecoderRefill(event, source.inputStream.getFormat().sampleCountToFrameCount(decodedSampleCount), bufferedMillis, source.endOfStream);
+            }
+
+            if (source.endOfStream) {
+                source.decodeScheduled.set(false);
+                try {
+                    source.close();
+                } catch (final IOException ignored) {
+                }
+            } else if (source.getRemainingFrameCount() < source.bufferFrameCount) { // Decode the next chunk after other starved sources had their turn
+                source.decodeScheduled.set(false);
+                source.scheduleDecode();
+            } else {
+                source.decodeScheduled.set(false);
+                if (source.getRemainingFrameCount() < source.lowWaterMarkFrameCount) { // The source might have been rendered in the meantime
+                    source.scheduleDecode();
+                }
+            }
+        }
+
+        @Override
+        protected float getRemainingMillis() {
+            return PullAudioSource.this.getFormat().frameCountToMillis(PullAudioSource.this.getRemainingFrameCountEstimate());
+        }
+
+    }
+
 }
@@ -28,6 +28,11 @@ public abstract class OscillatorSource extends Source {
         this.frequency.set(frequency);
     }
 
+    @Override
+    protected boolean supportsProcessorFolding() {
+        return true;
+    }
+
     public FloatParameter frequency() {
         return this.frequency;
     }
@@ -0,0 +1,130 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DecoderScheduler implements AutoCloseable {
+
+    // Shared by all pull audio sources which don't specify a scheduler. Closing it has no effect.
+    public static final DecoderScheduler DEFAULT = new DecoderScheduler(Math.max(Runtime.getRuntime().availableProcessors() / 2, 1));
+
+    private static final long KEEP_ALIVE_SECONDS = 10;
+
+    private final ThreadPoolExecutor executor;
+    private final List<Job> queuedJobs = new ArrayList<>(); // In scheduling order
+
+    public DecoderScheduler(final int threadCount) {
+        this(threadCount, new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "AudioMixer Decoder #" + this.threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public DecoderScheduler(final int threadCount, final ThreadFactory threadFactory) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Thread count must be > 0");
+        }
+        // Threads are only started when needed and stop when idle. The thread factory may also create virtual threads.
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    // Every scheduled job submits one task to the executor. The task runs whichever queued job is the most starved at the time a worker picks it up.
+    public void schedule(final Job job) {
+        synchronized (this.queuedJobs) {
+            this.queuedJobs.add(job);
+        }
+        try {
+            this.executor.execute(this::runMostStarvedJob);
+        } catch (final RejectedExecutionException e) {
+            synchronized (this.queuedJobs) {
+                this.queuedJobs.remove(job);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this != DEFAULT) {
+            this.executor.shutdownNow();
+            synchronized (this.queuedJobs) {
+                this.queuedJobs.clear();
+            }
+        }
+    }
+
+    public int getQueuedJobCount() {
+        synchronized (this.queuedJobs) {
+            return this.queuedJobs.size();
+        }
+    }
+
+    public int getThreadCount() {
+        return this.executor.getMaximumPoolSize();
+    }
+
+    private void runMostStarvedJob() {
+        final Job job = this.takeMostStarvedJob();
+        if (job != null) {
+            job.run();
+        }
+    }
+
+    // The jobs don't lock their source to report the remaining millis, so they can be ranked while holding the lock
+    private Job takeMostStarvedJob() {
+        synchronized (this.queuedJobs) {
+            if (this.queuedJobs.isEmpty()) {
+                return null;
+            }
+
+            int mostStarvedIndex = 0;
+            float mostStarvedRemainingMillis = this.queuedJobs.get(0).getRemainingMillis();
+            for (int i = 1; i < this.queuedJobs.size(); i++) {
+                final float remainingMillis = this.queuedJobs.get(i).getRemainingMillis();
+                if (remainingMillis < mostStarvedRemainingMillis) { // Ties keep the scheduling order
+                    mostStarvedIndex = i;
+                    mostStarvedRemainingMillis = remainingMillis;
+                }
+            }
+            return this.queuedJobs.remove(mostStarvedIndex);
+        }
+    }
+
+    public abstract static class Job implements Runnable {
+
+        // Called while the scheduler is locked, so it must not wait for locks of the source
+        protected abstract float getRemainingMillis();
+
+    }
+
+}
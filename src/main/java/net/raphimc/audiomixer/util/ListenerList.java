@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
@@ -29,11 +30,15 @@ import java.util.stream.Stream;
 
 public class ListenerList<T> implements Collection<Consumer<T>> {
 
-    private final Collection<Consumer<T>> listeners = Collections.synchronizedList(new ArrayList<>(0));
+    private final List<Consumer<T>> listeners = Collections.synchronizedList(new ArrayList<>(0));
 
     public void invoke(final T object) {
         if (!this.isEmpty()) {
-            this.forEach(listener -> listener.accept(object));
+            synchronized (this.listeners) {
+                for (int i = 0; i < this.listeners.size(); i++) {
+                    this.listeners.get(i).accept(object);
+                }
+            }
         }
     }
 
@@ -17,30 +17,61 @@
  */
 package net.raphimc.audiomixer.util;
 
-import net.raphimc.audiomixer.io.pcm.PcmAudioOutputStream;
+import net.raphimc.audiomixer.io.pcm.PcmSampleEncoder;
 import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.buffer.ByteBlockRingBuffer;
+import net.raphimc.audiomixer.util.jfr.AudioMixerEvents;
 
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.SourceDataLine;
-import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class SourceDataLineWriter implements AutoCloseable {
 
+    private static final int UNDERRUNS_BEFORE_GROWING = 2;
+    private static final float GROW_FACTOR = 1.5F;
+    private static final float SHRINK_FACTOR = 0.9F;
+    private static final long STABLE_NANOS_BEFORE_SHRINKING = 10_000_000_000L;
+    private static final int RENDER_AHEAD_BLOCK_COUNT = 64;
+
     private final SourceDataLine sourceDataLine;
     private final PcmAudioFormat format;
     private final Callback callback;
+    private final int minBufferByteCount;
     private Thread writerThread;
-    private boolean interrupted; // Java clears the interrupt flag in SourceDataLine#write() and doesn't rethrow InterruptedException
+    private Thread renderThread;
+    private volatile boolean interrupted; // Java clears the interrupt flag in SourceDataLine#write() and doesn't rethrow InterruptedException
     private float processingLoad;
+    private volatile int targetBufferByteCount;
+    private volatile int underrunCount;
+    private int recentUnderrunCount;
+    private long lastAdjustmentTime;
+    private int renderAheadMillis;
+    private final AtomicLong flushGeneration = new AtomicLong(); // Incremented by flush(). Audio rendered in an older generation is never written to the line.
 
     public SourceDataLineWriter(final SourceDataLine sourceDataLine, final int bufferMillis, final Callback callback) throws LineUnavailableException {
-        if (bufferMillis <= 0) {
-            throw new IllegalArgumentException("Buffer millis must be > 0");
+        this(sourceDataLine, bufferMillis, bufferMillis, callback);
+    }
+
+    // The line is opened with the max buffer size, but only filled up to the target buffer size. The target starts at the min buffer size, grows after repeated
+    // underruns and shrinks back towards the min buffer size after a stable period.
+    public SourceDataLineWriter(final SourceDataLine sourceDataLine, final int minBufferMillis, final int maxBufferMillis, final Callback callback) throws LineUnavailableException {
+        if (minBufferMillis <= 0) {
+            throw new IllegalArgumentException("Min buffer millis must be > 0");
+        }
+        if (maxBufferMillis < minBufferMillis) {
+            throw new IllegalArgumentException("Max buffer millis must be >= min buffer millis");
         }
         this.sourceDataLine = sourceDataLine;
         this.format = JavaAudioFormatUtil.getPcmAudioFormat(this.sourceDataLine.getFormat());
         this.callback = callback;
-        this.sourceDataLine.open(this.sourceDataLine.getFormat(), this.format.millisToByteCount(bufferMillis));
+        this.sourceDataLine.open(this.sourceDataLine.getFormat(), this.format.millisToByteCount(maxBufferMillis));
+        if (minBufferMillis == maxBufferMillis) { // The line might have been opened with a larger buffer than requested
+            this.minBufferByteCount = this.sourceDataLine.getBufferSize();
+        } else {
+            this.minBufferByteCount = Math.min(this.format.millisToByteCount(minBufferMillis), this.sourceDataLine.getBufferSize());
+        }
+        this.targetBufferByteCount = this.minBufferByteCount;
     }
 
     public void start() {
@@ -50,51 +81,37 @@ public class SourceDataLineWriter implements AutoCloseable {
 
         TimerHack.ensureRunning();
         this.interrupted = false;
-        this.writerThread = new Thread(() -> {
-            try {
-                while (!Thread.currentThread().isInterrupted() && !this.interrupted) {
-                    while (this.sourceDataLine.available() > 0 && !Thread.currentThread().isInterrupted() && !this.interrupted) {
-                        final long startTime = System.nanoTime();
-                        final AudioBuffer buffer = this.callback.renderAudio(this.format.byteCountToFrameCount(this.sourceDataLine.available()));
-                        final ByteArrayOutputStream baos = new ByteArrayOutputStream(this.format.frameCountToByteCount(buffer.frameCount()));
-                        try (PcmAudioOutputStream aos = new PcmAudioOutputStream(baos, this.format)) {
-                            aos.write(buffer.samples());
-                        }
-                        final byte[] pcmData = baos.toByteArray();
-                        if (!this.sourceDataLine.isActive()) {
-                            this.sourceDataLine.start();
-                        }
-                        final float neededMillis = (System.nanoTime() - startTime) / 1_000_000F;
-                        this.processingLoad = (neededMillis / buffer.millisecondLength()) * 100F;
-                        this.sourceDataLine.write(pcmData, 0, pcmData.length);
-                    }
-                    Thread.sleep(1);
-                }
-            } catch (final InterruptedException ignored) {
-            } catch (final Throwable e) {
-                e.printStackTrace();
-                this.close();
-            }
-        }, "AudioMixer SourceDataLine Writer");
-        this.writerThread.setPriority(Thread.NORM_PRIORITY + 1);
-        this.writerThread.setDaemon(true);
-        this.writerThread.start();
+        if (this.renderAheadMillis > 0) {
+            final ByteBlockRingBuffer renderedBlocks = new ByteBlockRingBuffer(RENDER_AHEAD_BLOCK_COUNT);
+            this.renderThread = this.startThread(() -> this.renderAhead(renderedBlocks), "AudioMixer SourceDataLine Renderer");
+            this.writerThread = this.startThread(() -> this.writeRenderedBlocks(renderedBlocks), "AudioMixer SourceDataLine Writer");
+        } else {
+            this.writerThread = this.startThread(this::renderAndWrite, "AudioMixer SourceDataLine Writer");
+        }
     }
 
     public void flush() {
+        this.flushGeneration.incrementAndGet(); // Audio which was rendered before is discarded by the render and writer threads
         this.sourceDataLine.stop(); // Will be started again in the writer thread
         this.sourceDataLine.flush();
     }
 
     public void stop() {
         if (this.isRunning()) {
-            this.writerThread.interrupt();
             this.interrupted = true;
+            this.writerThread.interrupt();
+            if (this.renderThread != null) {
+                this.renderThread.interrupt();
+            }
             try {
                 this.writerThread.join(1000);
+                if (this.renderThread != null) {
+                    this.renderThread.join(1000);
+                }
             } catch (final InterruptedException ignored) {
             }
             this.writerThread = null;
+            this.renderThread = null;
         }
         this.sourceDataLine.stop();
     }
@@ -117,6 +134,168 @@ public class SourceDataLineWriter implements AutoCloseable {
         return this.processingLoad;
     }
 
+    public int getRenderAheadMillis() {
+        return this.renderAheadMillis;
+    }
+
+    /**
+     * Sets how many milliseconds of audio are rendered ahead on a separate thread. Rendering ahead absorbs render spikes without increasing the line buffer size.<br>
+     * 0 disables the separate render thread (Default). Takes effect when the writer is started the next time.
+     */
+    public void setRenderAheadMillis(final int renderAheadMillis) {
+        if (renderAheadMillis < 0) {
+            throw new IllegalArgumentException("Render ahead millis must be >= 0");
+        }
+        this.renderAheadMillis = renderAheadMillis;
+    }
+
+    public int getUnderrunCount() {
+        return this.underrunCount;
+    }
+
+    public float getTargetBufferMillis() {
+        return this.format.byteCountToMillis(this.targetBufferByteCount);
+    }
+
+    private Thread startThread(final Runnable runnable, final String name) {
+        final Thread thread = new Thread(() -> {
+            try {
+                runnable.run();
+            } catch (final Throwable e) {
+                e.printStackTrace();
+                this.close();
+            }
+        }, name);
+        thread.setPriority(Thread.NORM_PRIORITY + 1);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void renderAndWrite() {
+        final PcmSampleEncoder encoder = new PcmSampleEncoder(this.format.encoding());
+        byte[] pcmData = new byte[0];
+        this.lastAdjustmentTime = System.nanoTime();
+        while (this.isNotInterrupted()) {
+            while (this.getWritableFrameCount() > 0 && this.isNotInterrupted()) {
+                final long generation = this.flushGeneration.get();
+                final long startTime = System.nanoTime();
+                final AudioBuffer buffer = this.callback.renderAudio(this.getWritableFrameCount());
+                if (pcmData.length < encoder.getByteCount(buffer.sampleCount())) {
+                    pcmData = new byte[encoder.getByteCount(buffer.sampleCount())];
+                }
+                final int byteCount = encoder.encode(buffer.samples(), 0, buffer.sampleCount(), pcmData, 0);
+                this.processingLoad = ((System.nanoTime() - startTime) / 1_000_000F / buffer.millisecondLength()) * 100F;
+                this.write(pcmData, byteCount, generation);
+            }
+            if (!this.sleep()) {
+                return;
+            }
+        }
+    }
+
+    private void renderAhead(final ByteBlockRingBuffer renderedBlocks) {
+        final PcmSampleEncoder encoder = new PcmSampleEncoder(this.format.encoding());
+        final int renderAheadByteCount = this.format.millisToByteCount(this.renderAheadMillis);
+        while (this.isNotInterrupted()) {
+            while (renderedBlocks.queuedByteCount() < renderAheadByteCount && this.isNotInterrupted()) {
+                final ByteBlockRingBuffer.Block block = renderedBlocks.claim();
+                if (block == null) {
+                    break;
+                }
+                final long generation = this.flushGeneration.get();
+                final long startTime = System.nanoTime();
+                final AudioBuffer buffer = this.callback.renderAudio(this.format.byteCountToFrameCount(renderAheadByteCount - renderedBlocks.queuedByteCount()));
+                final byte[] blockData = block.ensureCapacity(encoder.getByteCount(buffer.sampleCount()));
+                block.setLength(encoder.encode(buffer.samples(), 0, buffer.sampleCount(), blockData, 0));
+                block.setGeneration(generation);
+                if (generation == this.flushGeneration.get()) { // Otherwise the block is reused for the next render
+                    renderedBlocks.publish();
+                }
+                this.processingLoad = ((System.nanoTime() - startTime) / 1_000_000F / buffer.millisecondLength()) * 100F;
+            }
+            if (!this.sleep()) {
+                return;
+            }
+        }
+    }
+
+    private void writeRenderedBlocks(final ByteBlockRingBuffer renderedBlocks) {
+        this.lastAdjustmentTime = System.nanoTime();
+        while (this.isNotInterrupted()) {
+            while (this.getWritableFrameCount() > 0 && this.isNotInterrupted()) {
+                final ByteBlockRingBuffer.Block block = renderedBlocks.peek();
+                if (block == null) {
+                    break;
+                }
+                this.write(block.data(), block.length(), block.generation());
+                renderedBlocks.release();
+            }
+            if (!this.sleep()) {
+                return;
+            }
+        }
+    }
+
+    // Audio from before the last flush() is dropped. If flush() runs while the audio is written, the line is flushed again to discard it.
+    private void write(final byte[] data, final int length, final long generation) {
+        if (generation != this.flushGeneration.get()) {
+            return;
+        }
+        this.write(data, length);
+        if (generation != this.flushGeneration.get()) {
+            this.sourceDataLine.stop();
+            this.sourceDataLine.flush();
+        }
+    }
+
+    private void write(final byte[] data, final int length) {
+        if (this.sourceDataLine.isActive() && this.sourceDataLine.available() >= this.sourceDataLine.getBufferSize()) { // The line played all data which was written to it
+            this.onUnderrun(this.format.byteCountToFrameCount(length));
+        } else if (System.nanoTime() - this.lastAdjustmentTime >= STABLE_NANOS_BEFORE_SHRINKING) {
+            this.shrinkTargetBuffer();
+        }
+        if (!this.sourceDataLine.isActive()) {
+            this.sourceDataLine.start();
+        }
+        this.sourceDataLine.write(data, 0, length);
+    }
+
+    private boolean isNotInterrupted() {
+        return !Thread.currentThread().isInterrupted() && !this.interrupted;
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(1);
+            return true;
+        } catch (final InterruptedException e) {
+            return false;
+        }
+    }
+
+    private int getWritableFrameCount() {
+        final int queuedByteCount = this.sourceDataLine.getBufferSize() - this.sourceDataLine.available();
+        return this.format.byteCountToFrameCount(Math.max(this.targetBufferByteCount - queuedByteCount, 0));
+    }
+
+    private void onUnderrun(final int renderedFrameCount) {
+        this.underrunCount++;
+        AudioMixerEvents.INSTANCE.underrun(this.format.byteCountToMillis(this.sourceDataLine.getBufferSize()), this.getTargetBufferMillis(), renderedFrameCount);
+
+        if (++this.recentUnderrunCount >= UNDERRUNS_BEFORE_GROWING) {
+            this.recentUnderrunCount = 0;
+            this.targetBufferByteCount = Math.min((int) (this.targetBufferByteCount * GROW_FACTOR), this.sourceDataLine.getBufferSize());
+        }
+        this.lastAdjustmentTime = System.nanoTime();
+    }
+
+    private void shrinkTargetBuffer() {
+        this.recentUnderrunCount = 0;
+        this.targetBufferByteCount = Math.max((int) (this.targetBufferByteCount * SHRINK_FACTOR), this.minBufferByteCount);
+        this.lastAdjustmentTime = System.nanoTime();
+    }
+
     @FunctionalInterface
     public interface Callback {
 
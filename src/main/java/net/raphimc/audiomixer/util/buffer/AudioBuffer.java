@@ -18,11 +18,12 @@
 package net.raphimc.audiomixer.util.buffer;
 
 import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.buffer.storage.AudioStorage;
 import net.raphimc.audiomixer.util.math.MathUtil;
 
 import java.util.Arrays;
 
-public record AudioBuffer(AudioFormat format, float[] samples) {
+public record AudioBuffer(AudioFormat format, float[] samples) implements AudioStorage {
 
     public AudioBuffer {
         if (samples.length % format.channels() != 0) {
@@ -42,8 +43,33 @@ public record AudioBuffer(AudioFormat format, float[] samples) {
         if (otherSamples.length != this.samples.length) {
             throw new IllegalArgumentException("Sample count mismatch: " + otherSamples.length + " != " + this.samples.length);
         }
-        for (int sampleIndex = 0; sampleIndex < otherSamples.length; sampleIndex++) {
-            this.samples[sampleIndex] += otherSamples[sampleIndex];
+        SampleKernels.INSTANCE.add(this.samples, otherSamples, otherSamples.length);
+    }
+
+    public void addScaled(final AudioBuffer other, final float[] channelFactors) {
+        if (!other.format().equals(this.format)) {
+            throw new IllegalArgumentException("Format mismatch: " + other.format() + " != " + this.format);
+        }
+        final float[] otherSamples = other.samples();
+        if (otherSamples.length != this.samples.length) {
+            throw new IllegalArgumentException("Sample count mismatch: " + otherSamples.length + " != " + this.samples.length);
+        }
+        switch (this.format.channels()) {
+            case 1 -> {
+                if (channelFactors[0] == 1F) {
+                    SampleKernels.INSTANCE.add(this.samples, otherSamples, otherSamples.length);
+                } else {
+                    SampleKernels.INSTANCE.addScaled(this.samples, otherSamples, otherSamples.length, channelFactors[0]);
+                }
+            }
+            case 2 -> {
+                if (channelFactors[0] == 1F && channelFactors[1] == 1F) {
+                    SampleKernels.INSTANCE.add(this.samples, otherSamples, otherSamples.length);
+                } else {
+                    SampleKernels.INSTANCE.addScaledStereo(this.samples, otherSamples, otherSamples.length, channelFactors[0], channelFactors[1]);
+                }
+            }
+            default -> throw new UnsupportedOperationException("Unsupported channel count: " + this.format.channels());
         }
     }
 
@@ -51,9 +77,7 @@ public record AudioBuffer(AudioFormat format, float[] samples) {
         if (factor == 0F) {
             this.clear();
         } else if (factor != 1F) {
-            for (int sampleIndex = 0; sampleIndex < this.samples.length; sampleIndex++) {
-                this.samples[sampleIndex] *= factor;
-            }
+            SampleKernels.INSTANCE.multiply(this.samples, this.samples.length, factor);
         }
     }
 
@@ -84,21 +108,23 @@ public record AudioBuffer(AudioFormat format, float[] samples) {
     }
 
     public float peakAmplitude() {
-        float peak = 0F;
-        for (float sample : this.samples) {
-            peak = Math.max(Math.abs(sample), peak);
-        }
-        return peak;
+        return SampleKernels.INSTANCE.peakAmplitude(this.samples, this.samples.length);
     }
 
     public int sampleCount() {
         return this.samples.length;
     }
 
+    @Override
     public int frameCount() {
         return this.format.sampleCountToFrameCount(this.sampleCount());
     }
 
+    @Override
+    public void read(final int frameIndex, final float[] samples, final int offset, final int frameCount) {
+        System.arraycopy(this.samples, frameIndex * this.format.channels(), samples, offset, frameCount * this.format.channels());
+    }
+
     public float millisecondLength() {
         return this.format.sampleCountToMillis(this.sampleCount());
     }
@@ -0,0 +1,82 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.buffer;
+
+import net.raphimc.audiomixer.util.AudioFormat;
+
+import java.util.Arrays;
+
+// Not thread safe. Meant to be owned by a single render thread (For example one per mixer).
+public class AudioBufferPool {
+
+    private static final int DEFAULT_MAX_POOLED_BUFFERS = 16;
+
+    private final int maxPooledBuffers;
+    private AudioBuffer[] buffers = new AudioBuffer[0];
+    private int size;
+
+    public AudioBufferPool() {
+        this(DEFAULT_MAX_POOLED_BUFFERS);
+    }
+
+    public AudioBufferPool(final int maxPooledBuffers) {
+        if (maxPooledBuffers <= 0) {
+            throw new IllegalArgumentException("Max pooled buffers must be > 0");
+        }
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    public AudioBuffer acquire(final AudioFormat format, final int frameCount) {
+        final int sampleCount = frameCount * format.channels();
+        for (int i = this.size - 1; i >= 0; i--) {
+            final AudioBuffer buffer = this.buffers[i];
+            if (buffer.sampleCount() == sampleCount && buffer.format().equals(format)) {
+                this.buffers[i] = this.buffers[--this.size];
+                this.buffers[this.size] = null;
+                buffer.clear();
+                return buffer;
+            }
+        }
+        return new AudioBuffer(format, frameCount);
+    }
+
+    public AudioBuffer acquireWorkBuffer(final AudioBuffer buffer) {
+        return this.acquire(buffer.format(), buffer.frameCount());
+    }
+
+    public void release(final AudioBuffer buffer) {
+        if (this.size == this.maxPooledBuffers) { // Drop the least recently released buffer, it most likely has an outdated format or size
+            System.arraycopy(this.buffers, 1, this.buffers, 0, this.size - 1);
+            this.size--;
+        }
+        if (this.size == this.buffers.length) {
+            this.buffers = Arrays.copyOf(this.buffers, Math.min(Math.max(4, this.buffers.length << 1), this.maxPooledBuffers));
+        }
+        this.buffers[this.size++] = buffer;
+    }
+
+    public void clear() {
+        Arrays.fill(this.buffers, 0, this.size, null);
+        this.size = 0;
+    }
+
+    public int getPooledBufferCount() {
+        return this.size;
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.buffer;
+
+import net.raphimc.audiomixer.util.math.MathUtil;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Half-band filtered and 2x decimated copies of audio buffers (Mipmaps), used to play back buffers at high pitches without aliasing.<br>
+ * Level n contains the buffer at 1 / 2^n of its sample rate. Levels are built lazily and cached for as long as the sample array of the buffer is reachable.<br>
+ * Render threads should look the pyramid up once with {@link #of(AudioBuffer)} and use {@link #getLevelIfBuilt(AudioBuffer, int)}, which builds missing levels in the background.
+ */
+public final class AudioBufferPyramid {
+
+    public static final int MAX_LEVEL = 8;
+    private static final int HALF_BAND_RADIUS = 31; // Odd, so that the outermost taps are non zero
+    private static final double KAISER_BETA = 8D; // About 80 dB stopband attenuation
+    private static final float[] HALF_BAND_TAPS = createHalfBandTaps();
+    private static final Map<float[], AudioBufferPyramid> PYRAMIDS = Collections.synchronizedMap(new WeakHashMap<>()); // float[] uses identity equality
+
+    private final int channels;
+    private volatile float[][] levels = new float[0][]; // Level 1 and up. Level 0 is the buffer itself and must not be referenced, otherwise the weak key would never be cleared
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    private AudioBufferPyramid(final int channels) {
+        this.channels = channels;
+    }
+
+    /**
+     * Returns the samples of the given level. Pitch changes of an audio source keep the sample array, so the cached levels are shared between them.
+     *
+     * @param buffer The buffer at level 0
+     * @param level  The level (0 returns the samples of the buffer)
+     * @return The samples at 1 / 2^level of the sample rate of the buffer
+     */
+    public static float[] getLevel(final AudioBuffer buffer, final int level) {
+        if (level < 0 || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("Level must be between 0 and " + MAX_LEVEL);
+        }
+        if (level == 0) {
+            return buffer.samples();
+        }
+        return of(buffer).getLevel(buffer.samples(), level);
+    }
+
+    /**
+     * Returns the pyramid of the given buffer. Pitch changes of an audio source keep the sample array, so the same pyramid is returned for them.
+     */
+    public static AudioBufferPyramid of(final AudioBuffer buffer) {
+        synchronized (PYRAMIDS) {
+            AudioBufferPyramid pyramid = PYRAMIDS.get(buffer.samples());
+            if (pyramid == null || pyramid.channels != buffer.format().channels()) { // Not built yet or the same sample array was reinterpreted with another channel count
+                pyramid = new AudioBufferPyramid(buffer.format().channels());
+                PYRAMIDS.put(buffer.samples(), pyramid);
+            }
+            return pyramid;
+        }
+    }
+
+    /**
+     * Builds all levels up to the given level ahead of time, so that the first render at a high pitch doesn't have to.
+     */
+    public static void build(final AudioBuffer buffer, final int maxLevel) {
+        getLevel(buffer, maxLevel);
+    }
+
+    /**
+     * @return The highest level which still contains at least one frame
+     */
+    public static int getMaxLevel(final AudioBuffer buffer) {
+        final int frameCount = buffer.frameCount();
+        return frameCount > 0 ? Math.min(31 - Integer.numberOfLeadingZeros(frameCount), MAX_LEVEL) : 0;
+    }
+
+    /**
+     * Returns the samples of the given level without waiting for it to be built. Missing levels are built in the background.
+     *
+     * @param buffer The buffer at level 0 (Must be the buffer this pyramid was returned for)
+     * @param level  The level (Must be >= 1)
+     * @return The samples at 1 / 2^level of the sample rate of the buffer or null if the level isn't built yet
+     */
+    public float[] getLevelIfBuilt(final AudioBuffer buffer, final int level) {
+        if (level < 1 || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("Level must be between 1 and " + MAX_LEVEL);
+        }
+        final float[][] levels = this.levels;
+        if (levels.length >= level) {
+            return levels[level - 1];
+        }
+        if (this.building.compareAndSet(false, true)) {
+            final float[] samples = buffer.samples();
+            ForkJoinPool.commonPool().execute(() -> {
+                try {
+                    this.getLevel(samples, level);
+                } finally {
+                    this.building.set(false);
+                }
+            });
+        }
+        return null;
+    }
+
+    private float[] getLevel(final float[] samples, final int level) {
+        float[][] levels = this.levels;
+        if (levels.length < level) {
+            synchronized (this) {
+                levels = this.levels;
+                if (levels.length < level) {
+                    final float[][] newLevels = new float[level][];
+                    System.arraycopy(levels, 0, newLevels, 0, levels.length);
+                    for (int i = levels.length; i < level; i++) {
+                        newLevels[i] = decimate(i == 0 ? samples : newLevels[i - 1], this.channels);
+                    }
+                    this.levels = levels = newLevels;
+                }
+            }
+        }
+        return levels[level - 1];
+    }
+
+    // The center tap of a half-band filter is 0.5 and all other even taps are 0, so only the odd taps are evaluated
+    private static float[] decimate(final float[] src, final int channels) {
+        final int srcFrameCount = src.length / channels;
+        final int dstFrameCount = (srcFrameCount + 1) / 2;
+        final float[] dst = new float[dstFrameCount * channels];
+        for (int channel = 0; channel < channels; channel++) {
+            for (int i = 0; i < dstFrameCount; i++) {
+                final int center = i * 2;
+                float sum = src[center * channels + channel] * 0.5F;
+                for (int j = 0; j < HALF_BAND_TAPS.length; j++) {
+                    final int left = center - (j * 2 + 1);
+                    final int right = center + (j * 2 + 1);
+                    final float leftSample = left >= 0 ? src[left * channels + channel] : 0F;
+                    final float rightSample = right < srcFrameCount ? src[right * channels + channel] : 0F;
+                    sum += HALF_BAND_TAPS[j] * (leftSample + rightSample);
+                }
+                dst[i * channels + channel] = sum;
+            }
+        }
+        return dst;
+    }
+
+    // Kaiser windowed sinc with the cutoff at a quarter of the sample rate. Contains the taps at the offsets 1, 3, ..., HALF_BAND_RADIUS
+    private static float[] createHalfBandTaps() {
+        final double[] taps = new double[(HALF_BAND_RADIUS + 1) / 2];
+        double sum = 0D;
+        for (int i = 0; i < taps.length; i++) {
+            final int offset = i * 2 + 1;
+            final double windowPosition = (double) offset / (HALF_BAND_RADIUS + 1);
+            final double window = MathUtil.besselI0(KAISER_BETA * Math.sqrt(1D - windowPosition * windowPosition)) / MathUtil.besselI0(KAISER_BETA);
+            taps[i] = Math.sin(Math.PI * offset / 2D) / (Math.PI * offset) * window;
+            sum += taps[i] * 2D;
+        }
+        final float[] normalizedTaps = new float[taps.length];
+        for (int i = 0; i < taps.length; i++) {
+            normalizedTaps[i] = (float) (taps[i] * 0.5D / sum); // The odd taps sum up to 0.5, so that the DC gain is 1
+        }
+        return normalizedTaps;
+    }
+
+}
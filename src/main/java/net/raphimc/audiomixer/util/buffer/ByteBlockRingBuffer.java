@@ -0,0 +1,137 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.buffer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free ring of reusable byte blocks for exactly one producer and one consumer thread
+public class ByteBlockRingBuffer {
+
+    private final Block[] blocks;
+    private final AtomicLong head = new AtomicLong(); // Next block to read (Only advanced by the consumer)
+    private final AtomicLong tail = new AtomicLong(); // Next block to write (Only advanced by the producer)
+    private final AtomicInteger queuedByteCount = new AtomicInteger();
+
+    public ByteBlockRingBuffer(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be > 0");
+        }
+        this.blocks = new Block[capacity];
+        for (int i = 0; i < capacity; i++) {
+            this.blocks[i] = new Block();
+        }
+    }
+
+    /**
+     * Must only be called by the producer.
+     *
+     * @return The next free block or null if the ring is full. The block is only passed to the consumer once it is published.
+     */
+    public Block claim() {
+        final long tail = this.tail.get();
+        if (tail - this.head.get() >= this.blocks.length) {
+            return null;
+        }
+        return this.blocks[(int) (tail % this.blocks.length)];
+    }
+
+    public void publish() {
+        final long tail = this.tail.get();
+        if (tail - this.head.get() >= this.blocks.length) {
+            throw new IllegalStateException("No block claimed");
+        }
+        this.queuedByteCount.addAndGet(this.blocks[(int) (tail % this.blocks.length)].length);
+        this.tail.lazySet(tail + 1);
+    }
+
+    /**
+     * Must only be called by the consumer.
+     *
+     * @return The oldest published block or null if the ring is empty. The block stays valid until it is released.
+     */
+    public Block peek() {
+        final long head = this.head.get();
+        if (head == this.tail.get()) {
+            return null;
+        }
+        return this.blocks[(int) (head % this.blocks.length)];
+    }
+
+    public void release() {
+        final long head = this.head.get();
+        if (head == this.tail.get()) {
+            throw new IllegalStateException("Buffer is empty");
+        }
+        this.queuedByteCount.addAndGet(-this.blocks[(int) (head % this.blocks.length)].length);
+        this.head.lazySet(head + 1);
+    }
+
+    public int size() {
+        return (int) (this.tail.get() - this.head.get());
+    }
+
+    public int capacity() {
+        return this.blocks.length;
+    }
+
+    public int queuedByteCount() {
+        return this.queuedByteCount.get();
+    }
+
+    public static final class Block {
+
+        private byte[] data = new byte[0];
+        private int length;
+        private long generation;
+
+        // The contents aren't preserved when the block has to grow
+        public byte[] ensureCapacity(final int capacity) {
+            if (this.data.length < capacity) {
+                this.data = new byte[capacity];
+            }
+            return this.data;
+        }
+
+        public void setLength(final int length) {
+            if (length < 0 || length > this.data.length) {
+                throw new IllegalArgumentException("Length out of range: " + length);
+            }
+            this.length = length;
+        }
+
+        // Free to use by the producer, for example to detect blocks which became stale after being published
+        public void setGeneration(final long generation) {
+            this.generation = generation;
+        }
+
+        public byte[] data() {
+            return this.data;
+        }
+
+        public int length() {
+            return this.length;
+        }
+
+        public long generation() {
+            return this.generation;
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.buffer;
+
+public class SampleKernels {
+
+    public static final SampleKernels INSTANCE = create();
+
+    protected SampleKernels() {
+    }
+
+    public void add(final float[] dst, final float[] src, final int length) {
+        for (int i = 0; i < length; i++) {
+            dst[i] += src[i];
+        }
+    }
+
+    public void addScaled(final float[] dst, final float[] src, final int length, final float factor) {
+        for (int i = 0; i < length; i++) {
+            dst[i] += src[i] * factor;
+        }
+    }
+
+    public void addScaledStereo(final float[] dst, final float[] src, final int length, final float leftFactor, final float rightFactor) {
+        for (int i = 0; i < length; i += 2) {
+            dst[i] += src[i] * leftFactor;
+            dst[i + 1] += src[i + 1] * rightFactor;
+        }
+    }
+
+    public void multiply(final float[] samples, final int length, final float factor) {
+        for (int i = 0; i < length; i++) {
+            samples[i] *= factor;
+        }
+    }
+
+    public void multiplyStereo(final float[] samples, final int length, final float leftFactor, final float rightFactor) {
+        for (int i = 0; i < length; i += 2) {
+            samples[i] *= leftFactor;
+            samples[i + 1] *= rightFactor;
+        }
+    }
+
+    public float peakAmplitude(final float[] samples, final int length) {
+        float peak = 0F;
+        for (int i = 0; i < length; i++) {
+            peak = Math.max(Math.abs(samples[i]), peak);
+        }
+        return peak;
+    }
+
+    public boolean isVectorized() {
+        return false;
+    }
+
+    private static SampleKernels create() {
+        // The vectorized implementation is only included for Java 21+ (Multi-Release jar) and requires the incubator module to be added at runtime
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (SampleKernels) Class.forName(SampleKernels.class.getPackageName() + ".VectorSampleKernels").getDeclaredConstructor().newInstance();
+            } catch (final Throwable ignored) {
+            }
+        }
+        return new SampleKernels();
+    }
+
+}
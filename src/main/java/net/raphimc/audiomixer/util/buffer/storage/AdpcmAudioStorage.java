@@ -0,0 +1,173 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.buffer.storage;
+
+import net.raphimc.audiomixer.io.AudioInputStream;
+import net.raphimc.audiomixer.io.adpcm.AdpcmCodec;
+import net.raphimc.audiomixer.io.wav.WavAdpcmAudioInputStream;
+import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+// Stores 4-bit ADPCM blocks and decodes them on demand. Sequential reads reuse the last decoded block of the reading thread.
+public class AdpcmAudioStorage implements AudioStorage {
+
+    private static final int IMA_BLOCK_ALIGN_PER_CHANNEL = 512;
+
+    private final AudioFormat format;
+    private final AdpcmCodec codec;
+    private final byte[] blocks;
+    private final int frameCount;
+    private final ThreadLocal<DecodedBlock> decodedBlock;
+
+    public AdpcmAudioStorage(final AudioFormat format, final AdpcmCodec codec, final byte[] blocks, final int frameCount) {
+        if (codec.getChannels() != format.channels()) {
+            throw new IllegalArgumentException("Codec channel count must match the format channel count");
+        }
+        final long blockCount = (long) blocks.length / codec.getBlockAlign();
+        if (frameCount < 0 || frameCount > blockCount * codec.getFramesPerBlock() + codec.getFrameCount(blocks.length % codec.getBlockAlign())) {
+            throw new IllegalArgumentException("Frame count must be >= 0 and <= the frame count of the blocks");
+        }
+        this.format = format;
+        this.codec = codec;
+        this.blocks = blocks;
+        this.frameCount = frameCount;
+        this.decodedBlock = ThreadLocal.withInitial(() -> new DecodedBlock(new short[codec.getFramesPerBlock() * codec.getChannels()]));
+    }
+
+    public static AdpcmAudioStorage copyOf(final AudioBuffer buffer) {
+        final AdpcmCodec codec = AdpcmCodec.ima(buffer.format().channels(), IMA_BLOCK_ALIGN_PER_CHANNEL * buffer.format().channels());
+        final int blockSampleCount = codec.getFramesPerBlock() * codec.getChannels();
+        final int blockCount = (buffer.sampleCount() + blockSampleCount - 1) / blockSampleCount;
+        final byte[] blocks = new byte[Math.multiplyExact(blockCount, codec.getBlockAlign())];
+        final short[] blockSamples = new short[blockSampleCount];
+        final int[] stepIndices = new int[codec.getChannels()];
+        for (int i = 0; i < blockCount; i++) {
+            final int sampleCount = Math.min(blockSampleCount, buffer.sampleCount() - i * blockSampleCount);
+            Pcm16AudioStorage.encode(buffer.samples(), i * blockSampleCount, blockSamples, 0, sampleCount);
+            codec.encodeBlock(blockSamples, 0, sampleCount / codec.getChannels(), blocks, i * codec.getBlockAlign(), stepIndices);
+        }
+        return new AdpcmAudioStorage(buffer.format(), codec, blocks, buffer.frameCount());
+    }
+
+    // ADPCM WAV streams are stored as is, everything else is encoded as IMA ADPCM
+    public static AdpcmAudioStorage read(final AudioInputStream audioInputStream) throws IOException {
+        if (audioInputStream instanceof WavAdpcmAudioInputStream wavInputStream) {
+            final byte[] blocks = wavInputStream.readRemainingBlocks();
+            return new AdpcmAudioStorage(wavInputStream.getFormat(), wavInputStream.getCodec(), blocks, wavInputStream.getFrameCount(blocks)); // The data chunk length can't be trusted for truncated or streamed files
+        }
+
+        final AudioFormat format = audioInputStream.getFormat();
+        final AdpcmCodec codec = AdpcmCodec.ima(format.channels(), IMA_BLOCK_ALIGN_PER_CHANNEL * format.channels());
+        final int blockSampleCount = codec.getFramesPerBlock() * codec.getChannels();
+        final float[] chunk = new float[blockSampleCount];
+        final short[] blockSamples = new short[blockSampleCount];
+        final int[] stepIndices = new int[codec.getChannels()];
+        final int initialCapacity = audioInputStream.getInitialSampleCapacity();
+        byte[] blocks = new byte[initialCapacity >= 0 ? (int) Math.min(((long) initialCapacity + blockSampleCount - 1) / blockSampleCount * codec.getBlockAlign(), Integer.MAX_VALUE - 8) : codec.getBlockAlign()];
+        int byteCount = 0;
+        long frameCount = 0;
+        while (true) {
+            final int read = audioInputStream.read(chunk);
+            final int frames = read / codec.getChannels();
+            if (frames > 0) {
+                if (blocks.length - byteCount < codec.getBlockAlign()) {
+                    blocks = Arrays.copyOf(blocks, Math.max(Math.addExact(byteCount, codec.getBlockAlign()), (int) Math.min((long) blocks.length << 1, Integer.MAX_VALUE - 8)));
+                }
+                Pcm16AudioStorage.encode(chunk, 0, blockSamples, 0, frames * codec.getChannels());
+                codec.encodeBlock(blockSamples, 0, frames, blocks, byteCount, stepIndices);
+                byteCount += codec.getBlockAlign();
+                frameCount += frames;
+            }
+            if (read < chunk.length) {
+                break;
+            }
+        }
+        return new AdpcmAudioStorage(format, codec, byteCount == blocks.length ? blocks : Arrays.copyOf(blocks, byteCount), Math.toIntExact(frameCount));
+    }
+
+    @Override
+    public void read(final int frameIndex, final float[] samples, final int offset, final int frameCount) {
+        Objects.checkFromIndexSize(frameIndex, frameCount, this.frameCount);
+        final int channels = this.format.channels();
+        Objects.checkFromIndexSize(offset, frameCount * channels, samples.length);
+        final int framesPerBlock = this.codec.getFramesPerBlock();
+        final DecodedBlock decodedBlock = this.decodedBlock.get();
+        final int endFrameIndex = frameIndex + frameCount;
+        int currentFrameIndex = frameIndex;
+        int currentOffset = offset;
+        while (currentFrameIndex < endFrameIndex) {
+            final int blockIndex = currentFrameIndex / framesPerBlock;
+            final int blockFrameIndex = currentFrameIndex % framesPerBlock;
+            final int blockFrameCount = Math.min(endFrameIndex - currentFrameIndex, framesPerBlock - blockFrameIndex);
+            if (decodedBlock.blockIndex != blockIndex || decodedBlock.frameCount < blockFrameIndex + blockFrameCount) {
+                // Decode the rest of the block as well, because sources read it in small sequential windows
+                decodedBlock.frameCount = Math.min(framesPerBlock, this.frameCount - blockIndex * framesPerBlock);
+                this.codec.decodeBlock(this.blocks, blockIndex * this.codec.getBlockAlign(), decodedBlock.samples, 0, decodedBlock.frameCount);
+                decodedBlock.blockIndex = blockIndex;
+            }
+            final int srcOffset = blockFrameIndex * channels;
+            for (int i = 0; i < blockFrameCount * channels; i++) {
+                final short value = decodedBlock.samples[srcOffset + i];
+                if (value < 0) {
+                    samples[currentOffset + i] = -(float) value / Short.MIN_VALUE;
+                } else if (value > 0) {
+                    samples[currentOffset + i] = (float) value / Short.MAX_VALUE;
+                } else {
+                    samples[currentOffset + i] = 0F;
+                }
+            }
+            currentFrameIndex += blockFrameCount;
+            currentOffset += blockFrameCount * channels;
+        }
+    }
+
+    @Override
+    public AudioFormat format() {
+        return this.format;
+    }
+
+    @Override
+    public int frameCount() {
+        return this.frameCount;
+    }
+
+    public AdpcmCodec codec() {
+        return this.codec;
+    }
+
+    public byte[] blocks() {
+        return this.blocks;
+    }
+
+    private static final class DecodedBlock {
+
+        private final short[] samples;
+        private int blockIndex = -1;
+        private int frameCount;
+
+        private DecodedBlock(final short[] samples) {
+            this.samples = samples;
+        }
+
+    }
+
+}
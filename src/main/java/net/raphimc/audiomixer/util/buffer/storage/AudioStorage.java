@@ -0,0 +1,31 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.buffer.storage;
+
+import net.raphimc.audiomixer.util.AudioFormat;
+
+// Holds the samples of a sound in an arbitrary representation and decodes them on demand. Implementations must allow concurrent reads.
+public interface AudioStorage {
+
+    AudioFormat format();
+
+    int frameCount();
+
+    void read(final int frameIndex, final float[] samples, final int offset, final int frameCount);
+
+}
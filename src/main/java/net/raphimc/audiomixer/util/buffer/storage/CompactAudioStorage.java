@@ -0,0 +1,93 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.buffer.storage;
+
+import net.raphimc.audiomixer.io.AudioInputStream;
+import net.raphimc.audiomixer.util.AudioFormat;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+// Stores each sample in 16 bits and decodes them on demand
+public abstract class CompactAudioStorage implements AudioStorage {
+
+    private final AudioFormat format;
+    private final short[] samples;
+
+    protected CompactAudioStorage(final AudioFormat format, final short[] samples) {
+        if (samples.length % format.channels() != 0) {
+            throw new IllegalArgumentException("Sample count must be a multiple of the channel count");
+        }
+        this.format = format;
+        this.samples = samples;
+    }
+
+    @Override
+    public void read(final int frameIndex, final float[] samples, final int offset, final int frameCount) {
+        Objects.checkFromIndexSize(frameIndex, frameCount, this.frameCount());
+        Objects.checkFromIndexSize(offset, frameCount * this.format.channels(), samples.length);
+        this.decode(this.samples, frameIndex * this.format.channels(), samples, offset, frameCount * this.format.channels());
+    }
+
+    @Override
+    public AudioFormat format() {
+        return this.format;
+    }
+
+    @Override
+    public int frameCount() {
+        return this.samples.length / this.format.channels();
+    }
+
+    public short[] samples() {
+        return this.samples;
+    }
+
+    protected abstract void decode(final short[] src, final int srcOffset, final float[] dst, final int dstOffset, final int length);
+
+    // Encodes the stream chunk by chunk, so the samples never have to be on the heap as floats all at once
+    protected static short[] readSamples(final AudioInputStream audioInputStream, final Encoder encoder) throws IOException {
+        final AudioFormat format = audioInputStream.getFormat();
+        final int initialCapacity = audioInputStream.getInitialSampleCapacity();
+        final float[] chunk = new float[format.millisToSampleCount(1000F)];
+        short[] samples = new short[initialCapacity >= 0 ? initialCapacity : chunk.length];
+        int sampleCount = 0;
+        while (true) {
+            final int read = audioInputStream.read(chunk);
+            if (samples.length - sampleCount < read) {
+                samples = Arrays.copyOf(samples, Math.max(Math.addExact(sampleCount, read), (int) Math.min((long) samples.length << 1, Integer.MAX_VALUE - 8)));
+            }
+            encoder.encode(chunk, 0, samples, sampleCount, read);
+            sampleCount += read;
+            if (read < chunk.length) {
+                break;
+            }
+        }
+        sampleCount -= sampleCount % format.channels();
+        return sampleCount == samples.length ? samples : Arrays.copyOf(samples, sampleCount);
+    }
+
+    @FunctionalInterface
+    protected interface Encoder {
+
+        void encode(final float[] src, final int srcOffset, final short[] dst, final int dstOffset, final int length);
+
+    }
+
+}
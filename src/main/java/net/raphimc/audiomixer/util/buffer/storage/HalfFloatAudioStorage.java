@@ -0,0 +1,57 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.buffer.storage;
+
+import net.raphimc.audiomixer.io.AudioInputStream;
+import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.math.MathUtil;
+
+import java.io.IOException;
+
+// IEEE 754 half precision floats. Keeps 11 bits of precision over the whole dynamic range (Quiet passages stay more accurate than with 16-bit PCM).
+public class HalfFloatAudioStorage extends CompactAudioStorage {
+
+    public HalfFloatAudioStorage(final AudioFormat format, final short[] samples) {
+        super(format, samples);
+    }
+
+    public static HalfFloatAudioStorage copyOf(final AudioBuffer buffer) {
+        final short[] samples = new short[buffer.sampleCount()];
+        encode(buffer.samples(), 0, samples, 0, samples.length);
+        return new HalfFloatAudioStorage(buffer.format(), samples);
+    }
+
+    public static HalfFloatAudioStorage read(final AudioInputStream audioInputStream) throws IOException {
+        return new HalfFloatAudioStorage(audioInputStream.getFormat(), readSamples(audioInputStream, HalfFloatAudioStorage::encode));
+    }
+
+    @Override
+    protected void decode(final short[] src, final int srcOffset, final float[] dst, final int dstOffset, final int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = MathUtil.halfToFloat(src[srcOffset + i]);
+        }
+    }
+
+    private static void encode(final float[] src, final int srcOffset, final short[] dst, final int dstOffset, final int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = MathUtil.floatToHalf(src[srcOffset + i]);
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.buffer.storage;
+
+import net.raphimc.audiomixer.io.AudioInputStream;
+import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Objects;
+
+// Keeps the samples in a direct buffer outside the Java heap. The native memory is released by the GC once the storage is closed (Or unreachable).
+public class OffHeapAudioStorage implements AudioStorage, AutoCloseable {
+
+    private final AudioFormat format;
+    private final int frameCount;
+    private volatile FloatBuffer samples;
+
+    public OffHeapAudioStorage(final AudioFormat format, final int frameCount) {
+        if (frameCount < 0) {
+            throw new IllegalArgumentException("Frame count must be >= 0");
+        }
+        this.format = format;
+        this.frameCount = frameCount;
+        this.samples = allocate(Math.multiplyExact(frameCount, format.channels()));
+    }
+
+    private OffHeapAudioStorage(final AudioFormat format, final FloatBuffer samples) {
+        this.format = format;
+        this.frameCount = format.sampleCountToFrameCount(samples.capacity());
+        this.samples = samples;
+    }
+
+    public static OffHeapAudioStorage copyOf(final AudioBuffer buffer) {
+        final OffHeapAudioStorage storage = new OffHeapAudioStorage(buffer.format(), buffer.frameCount());
+        storage.write(0, buffer.samples(), 0, buffer.frameCount());
+        return storage;
+    }
+
+    // Decodes the stream straight into native memory without keeping the whole sound on the heap
+    public static OffHeapAudioStorage read(final AudioInputStream audioInputStream) throws IOException {
+        final AudioFormat format = audioInputStream.getFormat();
+        final int initialCapacity = audioInputStream.getInitialSampleCapacity();
+        final float[] chunk = new float[format.millisToSampleCount(1000F)];
+        FloatBuffer samples = allocate(initialCapacity >= 0 ? initialCapacity : chunk.length);
+        while (true) {
+            final int read = audioInputStream.read(chunk);
+            if (samples.remaining() < read) {
+                final FloatBuffer newSamples = allocate(Math.max(Math.addExact(samples.position(), read), (int) Math.min((long) samples.capacity() << 1, Integer.MAX_VALUE / Float.BYTES)));
+                newSamples.put(samples.flip());
+                samples = newSamples;
+            }
+            samples.put(chunk, 0, read);
+            if (read < chunk.length) {
+                break;
+            }
+        }
+        final int sampleCount = samples.position() - samples.position() % format.channels();
+        if (sampleCount != samples.capacity()) {
+            samples = allocate(sampleCount).put(samples.flip().limit(sampleCount));
+        }
+        return new OffHeapAudioStorage(format, samples.clear());
+    }
+
+    @Override
+    public void read(final int frameIndex, final float[] samples, final int offset, final int frameCount) {
+        Objects.checkFromIndexSize(frameIndex, frameCount, this.frameCount);
+        this.getSamples().get(frameIndex * this.format.channels(), samples, offset, frameCount * this.format.channels());
+    }
+
+    public void write(final int frameIndex, final float[] samples, final int offset, final int frameCount) {
+        Objects.checkFromIndexSize(frameIndex, frameCount, this.frameCount);
+        this.getSamples().put(frameIndex * this.format.channels(), samples, offset, frameCount * this.format.channels());
+    }
+
+    @Override
+    public void close() {
+        this.samples = null;
+    }
+
+    public boolean isClosed() {
+        return this.samples == null;
+    }
+
+    @Override
+    public AudioFormat format() {
+        return this.format;
+    }
+
+    @Override
+    public int frameCount() {
+        return this.frameCount;
+    }
+
+    private FloatBuffer getSamples() {
+        final FloatBuffer samples = this.samples;
+        if (samples == null) {
+            throw new IllegalStateException("Storage is closed");
+        }
+        return samples;
+    }
+
+    private static FloatBuffer allocate(final int sampleCount) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(sampleCount, Float.BYTES)).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.buffer.storage;
+
+import net.raphimc.audiomixer.io.AudioInputStream;
+import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.buffer.AudioBuffer;
+import net.raphimc.audiomixer.util.math.MathUtil;
+
+import java.io.IOException;
+
+// 16-bit signed PCM. Lossless for 16-bit sources and uses the same conversion as the S16 PCM encoding.
+public class Pcm16AudioStorage extends CompactAudioStorage {
+
+    public Pcm16AudioStorage(final AudioFormat format, final short[] samples) {
+        super(format, samples);
+    }
+
+    public static Pcm16AudioStorage copyOf(final AudioBuffer buffer) {
+        final short[] samples = new short[buffer.sampleCount()];
+        encode(buffer.samples(), 0, samples, 0, samples.length);
+        return new Pcm16AudioStorage(buffer.format(), samples);
+    }
+
+    public static Pcm16AudioStorage read(final AudioInputStream audioInputStream) throws IOException {
+        return new Pcm16AudioStorage(audioInputStream.getFormat(), readSamples(audioInputStream, Pcm16AudioStorage::encode));
+    }
+
+    @Override
+    protected void decode(final short[] src, final int srcOffset, final float[] dst, final int dstOffset, final int length) {
+        for (int i = 0; i < length; i++) {
+            final short value = src[srcOffset + i];
+            if (value < 0) {
+                dst[dstOffset + i] = -(float) value / Short.MIN_VALUE;
+            } else if (value > 0) {
+                dst[dstOffset + i] = (float) value / Short.MAX_VALUE;
+            } else {
+                dst[dstOffset + i] = 0F;
+            }
+        }
+    }
+
+    static void encode(final float[] src, final int srcOffset, final short[] dst, final int dstOffset, final int length) {
+        for (int i = 0; i < length; i++) {
+            final float sample = MathUtil.clamp(src[srcOffset + i], -1F, 1F);
+            if (sample < 0F) {
+                dst[dstOffset + i] = (short) Math.round(-sample * Short.MIN_VALUE);
+            } else if (sample > 0F) {
+                dst[dstOffset + i] = (short) Math.round(sample * Short.MAX_VALUE);
+            } else {
+                dst[dstOffset + i] = 0;
+            }
+        }
+    }
+
+}
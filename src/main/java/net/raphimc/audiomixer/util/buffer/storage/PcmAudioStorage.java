@@ -0,0 +1,99 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.buffer.storage;
+
+import net.raphimc.audiomixer.io.pcm.PcmSampleDecoder;
+import net.raphimc.audiomixer.io.wav.MappedWavPcmAudioInputStream;
+import net.raphimc.audiomixer.util.AudioFormat;
+import net.raphimc.audiomixer.util.PcmAudioFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+// Decodes PCM samples directly from a (Possibly memory mapped) byte buffer
+public class PcmAudioStorage implements AudioStorage {
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[CHUNK_SIZE]);
+
+    private final ByteBuffer data;
+    private final PcmAudioFormat pcmFormat;
+    private final PcmSampleDecoder decoder;
+    private final int frameCount;
+
+    public PcmAudioStorage(final ByteBuffer data, final PcmAudioFormat pcmFormat) {
+        this.data = data.slice();
+        this.pcmFormat = pcmFormat;
+        this.decoder = new PcmSampleDecoder(pcmFormat.encoding());
+        this.frameCount = this.data.remaining() / pcmFormat.bytesPerFrame();
+    }
+
+    public static PcmAudioStorage mapWav(final Path path) throws IOException {
+        try (MappedWavPcmAudioInputStream inputStream = new MappedWavPcmAudioInputStream(path)) {
+            return new PcmAudioStorage(inputStream.getDataBuffer(), inputStream.getPcmFormat());
+        }
+    }
+
+    public static PcmAudioStorage map(final Path path, final PcmAudioFormat pcmFormat, final long offset, final long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("PCM data is too large to be memory mapped: " + length + " bytes");
+        }
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new PcmAudioStorage(fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, length), pcmFormat);
+        }
+    }
+
+    @Override
+    public void read(final int frameIndex, final float[] samples, final int offset, final int frameCount) {
+        Objects.checkFromIndexSize(frameIndex, frameCount, this.frameCount);
+        final int channels = this.pcmFormat.format().channels();
+        final int sampleCount = frameCount * channels;
+        Objects.checkFromIndexSize(offset, sampleCount, samples.length);
+        final int byteIndex = frameIndex * this.pcmFormat.bytesPerFrame();
+        if (this.data.hasArray()) {
+            this.decoder.decode(this.data.array(), this.data.arrayOffset() + byteIndex, samples, offset, sampleCount);
+        } else { // Absolute bulk gets don't modify the buffer, so concurrent reads are fine
+            final byte[] chunk = CHUNK.get();
+            final int chunkSampleCount = CHUNK_SIZE / this.pcmFormat.encoding().bytesPerSample();
+            for (int i = 0; i < sampleCount; i += chunkSampleCount) {
+                final int chunkLength = Math.min(chunkSampleCount, sampleCount - i);
+                this.data.get(byteIndex + this.decoder.getByteCount(i), chunk, 0, this.decoder.getByteCount(chunkLength));
+                this.decoder.decode(chunk, 0, samples, offset + i, chunkLength);
+            }
+        }
+    }
+
+    @Override
+    public AudioFormat format() {
+        return this.pcmFormat.format();
+    }
+
+    @Override
+    public int frameCount() {
+        return this.frameCount;
+    }
+
+    public PcmAudioFormat pcmFormat() {
+        return this.pcmFormat;
+    }
+
+}
@@ -43,6 +43,11 @@ public class BinaryOutputStream extends FilterOutputStream {
         this.byteOrder = byteOrder;
     }
 
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        this.out.write(b, off, len); // FilterOutputStream writes arrays byte by byte
+    }
+
     public void writeBoolean(final boolean v) throws IOException {
         this.writeUnsignedByte(v ? 1 : 0);
     }
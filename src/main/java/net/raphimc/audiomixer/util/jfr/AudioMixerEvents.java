@@ -0,0 +1,68 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.jfr;
+
+// Emits the AudioMixer JFR events. The events are only emitted if the jdk.jfr module is present at runtime, otherwise all methods are no-ops.
+public class AudioMixerEvents {
+
+    public static final AudioMixerEvents INSTANCE = create();
+
+    protected AudioMixerEvents() {
+    }
+
+    /**
+     * @return The started event which has to be passed to {@link #commitRenderSlice(Object, Class, int, int, float)}, or null if the event is disabled
+     */
+    public Object beginRenderSlice() {
+        return null;
+    }
+
+    public void commitRenderSlice(final Object event, final Class<?> mixerClass, final int frameCount, final int sourceCount, final float processingLoad) {
+    }
+
+    /**
+     * @return The started event which has to be passed to {@link #commitDecoderRefill(Object, int, float, boolean)}, or null if the event is disabled
+     */
+    public Object beginDecoderRefill() {
+        return null;
+    }
+
+    public void commitDecoderRefill(final Object event, final int decodedFrameCount, final float bufferedMillis, final boolean endOfStream) {
+    }
+
+    public void sourceAdded(final Class<?> mixerClass, final Class<?> sourceClass) {
+    }
+
+    public void sourceFinished(final Class<?> mixerClass, final Class<?> sourceClass) {
+    }
+
+    public void underrun(final float lineBufferMillis, final float targetBufferMillis, final int renderedFrameCount) {
+    }
+
+    private static AudioMixerEvents create() {
+        // jdk.jfr might be missing on trimmed runtimes (jlink). The event classes must only be loaded if it is present.
+        if (ModuleLayer.boot().findModule("jdk.jfr").isPresent()) {
+            try {
+                return (AudioMixerEvents) Class.forName(AudioMixerEvents.class.getPackageName() + ".JfrAudioMixerEvents").getDeclaredConstructor().newInstance();
+            } catch (final Throwable ignored) {
+            }
+        }
+        return new AudioMixerEvents();
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.raphimc.audiomixer.DecoderRefill")
+@Label("Decoder Refill")
+@Category("AudioMixer")
+@Description("Decoding of a chunk for a pull audio source")
+@StackTrace(false)
+@SuppressWarnings("checkstyle:VisibilityModifier")
+public class DecoderRefillEvent extends Event {
+
+    @Label("Decoded Frame Count")
+    public int decodedFrameCount;
+
+    @Label("Buffered Millis")
+    @Description("Buffered audio before the refill")
+    public float bufferedMillis;
+
+    @Label("End Of Stream")
+    public boolean endOfStream;
+
+}
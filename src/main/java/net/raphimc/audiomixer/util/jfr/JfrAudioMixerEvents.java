@@ -0,0 +1,97 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.jfr;
+
+final class JfrAudioMixerEvents extends AudioMixerEvents {
+
+    JfrAudioMixerEvents() {
+    }
+
+    @Override
+    public Object beginRenderSlice() {
+        final RenderSliceEvent event = new RenderSliceEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitRenderSlice(final Object event, final Class<?> mixerClass, final int frameCount, final int sourceCount, final float processingLoad) {
+        if (event instanceof RenderSliceEvent renderSliceEvent && renderSliceEvent.shouldCommit()) {
+            renderSliceEvent.mixerClass = mixerClass;
+            renderSliceEvent.frameCount = frameCount;
+            renderSliceEvent.sourceCount = sourceCount;
+            renderSliceEvent.processingLoad = processingLoad;
+            renderSliceEvent.commit();
+        }
+    }
+
+    @Override
+    public Object beginDecoderRefill() {
+        final DecoderRefillEvent event = new DecoderRefillEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitDecoderRefill(final Object event, final int decodedFrameCount, final float bufferedMillis, final boolean endOfStream) {
+        if (event instanceof DecoderRefillEvent decoderRefillEvent && decoderRefillEvent.shouldCommit()) {
+            decoderRefillEvent.decodedFrameCount = decodedFrameCount;
+            decoderRefillEvent.bufferedMillis = bufferedMillis;
+            decoderRefillEvent.endOfStream = endOfStream;
+            decoderRefillEvent.commit();
+        }
+    }
+
+    @Override
+    public void sourceAdded(final Class<?> mixerClass, final Class<?> sourceClass) {
+        final SourceAddedEvent event = new SourceAddedEvent();
+        if (event.shouldCommit()) {
+            event.mixerClass = mixerClass;
+            event.sourceClass = sourceClass;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void sourceFinished(final Class<?> mixerClass, final Class<?> sourceClass) {
+        final SourceFinishedEvent event = new SourceFinishedEvent();
+        if (event.shouldCommit()) {
+            event.mixerClass = mixerClass;
+            event.sourceClass = sourceClass;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void underrun(final float lineBufferMillis, final float targetBufferMillis, final int renderedFrameCount) {
+        final UnderrunEvent event = new UnderrunEvent();
+        if (event.shouldCommit()) {
+            event.lineBufferMillis = lineBufferMillis;
+            event.targetBufferMillis = targetBufferMillis;
+            event.renderedFrameCount = renderedFrameCount;
+            event.commit();
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.StackTrace;
+
+@Name("net.raphimc.audiomixer.RenderSlice")
+@Label("Render Slice")
+@Category("AudioMixer")
+@Description("Rendering of a single slice by a mixer")
+@StackTrace(false)
+@SuppressWarnings("checkstyle:VisibilityModifier")
+public class RenderSliceEvent extends Event {
+
+    @Label("Mixer Class")
+    public Class<?> mixerClass;
+
+    @Label("Frame Count")
+    public int frameCount;
+
+    @Label("Source Count")
+    public int sourceCount;
+
+    @Label("Processing Load")
+    @Percentage
+    public float processingLoad;
+
+}
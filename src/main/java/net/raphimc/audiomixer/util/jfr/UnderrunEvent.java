@@ -0,0 +1,43 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("net.raphimc.audiomixer.Underrun")
+@Label("Underrun")
+@Category("AudioMixer")
+@Description("The output line ran out of audio data before new data was written")
+@SuppressWarnings("checkstyle:VisibilityModifier")
+public class UnderrunEvent extends Event {
+
+    @Label("Line Buffer Millis")
+    public float lineBufferMillis;
+
+    @Label("Target Buffer Millis")
+    public float targetBufferMillis;
+
+    @Label("Rendered Frame Count")
+    @Description("Frames which were rendered while the line ran dry")
+    public int renderedFrameCount;
+
+}
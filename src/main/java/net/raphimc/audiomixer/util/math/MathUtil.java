@@ -51,6 +51,17 @@ public final class MathUtil {
         return (int) (Math.ceil((double) value / multiple) * multiple);
     }
 
+    // Modified Bessel function of the first kind and order 0 (Used by the Kaiser window)
+    public static double besselI0(final double x) {
+        double sum = 1D;
+        double term = 1D;
+        for (int k = 1; k < 50 && term > sum * 1E-12; k++) {
+            term *= (x / (2D * k)) * (x / (2D * k));
+            sum += term;
+        }
+        return sum;
+    }
+
     public static float dbToGain(final float db) {
         return (float) Math.pow(10D, db / 20D);
     }
@@ -59,4 +70,34 @@ public final class MathUtil {
         return (float) (20D * Math.log10(gain));
     }
 
+    // IEEE 754 binary16 conversions (Float.float16ToFloat and Float.floatToFloat16 are only available since Java 20)
+    public static float halfToFloat(final short half) {
+        final int sign = (half & 0x8000) << 16;
+        final int exponent = (half >>> 10) & 0x1F;
+        final int mantissa = half & 0x3FF;
+        if (exponent == 0x1F) { // Infinity or NaN
+            return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa != 0 ? 0x400000 | (mantissa << 13) : 0));
+        } else if (exponent == 0) { // Zero or subnormal
+            final float value = mantissa * 0x1p-24F;
+            return sign != 0 ? -value : value;
+        } else {
+            return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+        }
+    }
+
+    public static short floatToHalf(final float value) {
+        final int bits = Float.floatToRawIntBits(value);
+        final int sign = (bits >>> 16) & 0x8000;
+        final int magnitude = bits & 0x7FFFFFFF;
+        if (magnitude >= 0x7F800000) { // Infinity or NaN
+            return (short) (sign | 0x7C00 | (magnitude > 0x7F800000 ? 0x200 | ((magnitude >>> 13) & 0x3FF) : 0));
+        } else if (magnitude >= 0x477FF000) { // Rounds to infinity
+            return (short) (sign | 0x7C00);
+        } else if (magnitude < 0x38800000) { // Subnormal (Scaling by a power of two is exact, rint rounds half to even)
+            return (short) (sign | (int) Math.rint(Float.intBitsToFloat(magnitude) * 0x1p24D));
+        } else { // Rebias the exponent and round the mantissa half to even
+            return (short) (sign | ((magnitude + 0xFFF + ((magnitude >>> 13) & 1) - 0x38000000) >>> 13));
+        }
+    }
+
 }
@@ -0,0 +1,143 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.profiling;
+
+import net.raphimc.audiomixer.automation.Automations;
+import net.raphimc.audiomixer.processor.Processor;
+import net.raphimc.audiomixer.source.Source;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Records render timings of sources, processors and automations on the threads it is bound to. Gain processors which are folded into the mix aren't timed individually. Checking for a bound profiler is a single atomic read while no profiler is enabled.
+public class RenderProfiler {
+
+    public static final int DEFAULT_WINDOW_SIZE = 1024;
+    private static final ThreadLocal<RenderProfiler> CURRENT = new ThreadLocal<>();
+    private static final AtomicInteger ENABLED_PROFILER_COUNT = new AtomicInteger();
+
+    private final Map<Source, TimingHistogram> sourceTimings = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<Processor, TimingHistogram> processorTimings = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<Automations, TimingHistogram> automationsTimings = Collections.synchronizedMap(new WeakHashMap<>());
+    private final int windowSize;
+    private volatile boolean enabled;
+
+    public RenderProfiler() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    public RenderProfiler(final int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be > 0");
+        }
+        this.windowSize = windowSize;
+    }
+
+    public static RenderProfiler current() {
+        if (ENABLED_PROFILER_COUNT.get() == 0) {
+            return null;
+        }
+        return CURRENT.get();
+    }
+
+    // Binds this profiler to the current thread and returns the previously bound profiler, which has to be restored with unbind afterwards
+    public RenderProfiler bind() {
+        final RenderProfiler previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    public static void unbind(final RenderProfiler previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    public void recordSource(final Source source, final long nanos) {
+        this.record(this.sourceTimings, source, nanos);
+    }
+
+    public void recordProcessor(final Processor processor, final long nanos) {
+        this.record(this.processorTimings, processor, nanos);
+    }
+
+    public void recordAutomations(final Automations automations, final long nanos) {
+        this.record(this.automationsTimings, automations, nanos);
+    }
+
+    public Map<Source, TimingHistogram.Statistics> getSourceTimings() {
+        return getStatistics(this.sourceTimings);
+    }
+
+    public Map<Processor, TimingHistogram.Statistics> getProcessorTimings() {
+        return getStatistics(this.processorTimings);
+    }
+
+    public Map<Automations, TimingHistogram.Statistics> getAutomationsTimings() {
+        return getStatistics(this.automationsTimings);
+    }
+
+    public void reset() {
+        this.sourceTimings.clear();
+        this.processorTimings.clear();
+        this.automationsTimings.clear();
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public synchronized void setEnabled(final boolean enabled) {
+        if (this.enabled != enabled) {
+            this.enabled = enabled;
+            if (enabled) {
+                ENABLED_PROFILER_COUNT.incrementAndGet();
+            } else {
+                ENABLED_PROFILER_COUNT.decrementAndGet();
+            }
+        }
+    }
+
+    private <T> void record(final Map<T, TimingHistogram> timings, final T key, final long nanos) {
+        TimingHistogram histogram;
+        synchronized (timings) {
+            histogram = timings.get(key);
+            if (histogram == null) {
+                histogram = new TimingHistogram(this.windowSize);
+                timings.put(key, histogram);
+            }
+        }
+        histogram.record(nanos);
+    }
+
+    private static <T> Map<T, TimingHistogram.Statistics> getStatistics(final Map<T, TimingHistogram> timings) {
+        final Map<T, TimingHistogram.Statistics> statistics = new HashMap<>();
+        synchronized (timings) {
+            for (Map.Entry<T, TimingHistogram> entry : timings.entrySet()) {
+                statistics.put(entry.getKey(), entry.getValue().getStatistics());
+            }
+        }
+        return statistics;
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.profiling;
+
+import java.util.Arrays;
+
+// Keeps the most recent timings in a ring, percentiles are computed when the statistics are queried
+public class TimingHistogram {
+
+    private final long[] timings;
+    private int position;
+    private int count;
+
+    public TimingHistogram(final int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be > 0");
+        }
+        this.timings = new long[windowSize];
+    }
+
+    public synchronized void record(final long nanos) {
+        this.timings[this.position] = nanos;
+        this.position = (this.position + 1) % this.timings.length;
+        this.count = Math.min(this.count + 1, this.timings.length);
+    }
+
+    public synchronized Statistics getStatistics() {
+        final long[] sortedTimings = Arrays.copyOf(this.timings, this.count);
+        Arrays.sort(sortedTimings);
+        return new Statistics(sortedTimings.length, percentile(sortedTimings, 0.5F), percentile(sortedTimings, 0.99F), percentile(sortedTimings, 1F));
+    }
+
+    public synchronized void reset() {
+        this.position = 0;
+        this.count = 0;
+    }
+
+    public int getWindowSize() {
+        return this.timings.length;
+    }
+
+    private static long percentile(final long[] sortedTimings, final float percentile) {
+        if (sortedTimings.length == 0) {
+            return 0;
+        }
+        return sortedTimings[Math.max((int) Math.ceil(percentile * sortedTimings.length) - 1, 0)];
+    }
+
+    public record Statistics(int sampleCount, long p50Nanos, long p99Nanos, long maxNanos) {
+
+        public float p50Millis() {
+            return this.p50Nanos / 1_000_000F;
+        }
+
+        public float p99Millis() {
+            return this.p99Nanos / 1_000_000F;
+        }
+
+        public float maxMillis() {
+            return this.maxNanos / 1_000_000F;
+        }
+
+    }
+
+}
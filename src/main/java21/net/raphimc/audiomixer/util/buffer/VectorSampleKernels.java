@@ -0,0 +1,134 @@
+/*
+ * This file is part of AudioMixer - https://github.com/RaphiMC/AudioMixer
+ * Copyright (C) 2024-2026 RK_01/RaphiMC and contributors
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.raphimc.audiomixer.util.buffer;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+final class VectorSampleKernels extends SampleKernels {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorMask<Float> RIGHT_CHANNEL_MASK = createRightChannelMask();
+
+    VectorSampleKernels() {
+        if (SPECIES.length() < 2) {
+            throw new IllegalStateException("Unsupported vector species: " + SPECIES);
+        }
+    }
+
+    @Override
+    public void add(final float[] dst, final float[] src, final int length) {
+        final int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, dst, i).add(FloatVector.fromArray(SPECIES, src, i)).intoArray(dst, i);
+        }
+        for (; i < length; i++) {
+            dst[i] += src[i];
+        }
+    }
+
+    @Override
+    public void addScaled(final float[] dst, final float[] src, final int length, final float factor) {
+        final int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, src, i).mul(factor).add(FloatVector.fromArray(SPECIES, dst, i)).intoArray(dst, i);
+        }
+        for (; i < length; i++) {
+            dst[i] += src[i] * factor;
+        }
+    }
+
+    @Override
+    public void addScaledStereo(final float[] dst, final float[] src, final int length, final float leftFactor, final float rightFactor) {
+        final FloatVector factors = FloatVector.broadcast(SPECIES, leftFactor).blend(rightFactor, RIGHT_CHANNEL_MASK);
+        final int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, src, i).mul(factors).add(FloatVector.fromArray(SPECIES, dst, i)).intoArray(dst, i);
+        }
+        for (; i < length; i += 2) {
+            dst[i] += src[i] * leftFactor;
+            dst[i + 1] += src[i + 1] * rightFactor;
+        }
+    }
+
+    @Override
+    public void multiply(final float[] samples, final int length, final float factor) {
+        final int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, samples, i).mul(factor).intoArray(samples, i);
+        }
+        for (; i < length; i++) {
+            samples[i] *= factor;
+        }
+    }
+
+    @Override
+    public void multiplyStereo(final float[] samples, final int length, final float leftFactor, final float rightFactor) {
+        final FloatVector factors = FloatVector.broadcast(SPECIES, leftFactor).blend(rightFactor, RIGHT_CHANNEL_MASK);
+        final int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) { // The species length is even, so every vector starts with a left sample
+            FloatVector.fromArray(SPECIES, samples, i).mul(factors).intoArray(samples, i);
+        }
+        for (; i < length; i += 2) {
+            samples[i] *= leftFactor;
+            samples[i + 1] *= rightFactor;
+        }
+    }
+
+    @Override
+    public float peakAmplitude(final float[] samples, final int length) {
+        final int unrolledUpperBound = SPECIES.loopBound(length / 2) * 2;
+        final int upperBound = SPECIES.loopBound(length);
+        FloatVector peaks1 = FloatVector.zero(SPECIES);
+        FloatVector peaks2 = FloatVector.zero(SPECIES);
+        int i = 0;
+        for (; i < unrolledUpperBound; i += SPECIES.length() * 2) { // Two independent accumulators to hide the latency of max
+            peaks1 = peaks1.max(FloatVector.fromArray(SPECIES, samples, i).abs());
+            peaks2 = peaks2.max(FloatVector.fromArray(SPECIES, samples, i + SPECIES.length()).abs());
+        }
+        for (; i < upperBound; i += SPECIES.length()) {
+            peaks1 = peaks1.max(FloatVector.fromArray(SPECIES, samples, i).abs());
+        }
+        float peak = peaks1.max(peaks2).reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++) {
+            peak = Math.max(Math.abs(samples[i]), peak);
+        }
+        return peak;
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    private static VectorMask<Float> createRightChannelMask() {
+        final boolean[] mask = new boolean[SPECIES.length()];
+        for (int i = 1; i < mask.length; i += 2) {
+            mask[i] = true;
+        }
+        return VectorMask.fromArray(SPECIES, mask, 0);
+    }
+
+}